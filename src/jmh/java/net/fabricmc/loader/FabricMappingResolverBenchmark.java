@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader;
+
+import net.fabricmc.loader.api.MappingResolver;
+import net.fabricmc.mappings.Mappings;
+import net.fabricmc.mappings.MappingsProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FabricMappingResolverBenchmark {
+	private static final int CLASS_COUNT = 5000;
+	private static final int LOOKUP_COUNT = 64;
+
+	private FabricMappingResolver resolver;
+	private MappingResolver.NamespaceMapper mapper;
+	private String[] classNames;
+	private String[] owners;
+	private String[] methodNames;
+	private String[] fieldNames;
+	private String[] methodDescs;
+	private String[] fieldDescs;
+
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder tiny = new StringBuilder("v1\tofficial\tintermediary\tnamed\n");
+
+		for (int i = 0; i < CLASS_COUNT; i++) {
+			tiny.append("CLASS\tc").append(i).append("\tnet/minecraft/class_").append(i).append("\tnet/minecraft/Class").append(i).append('\n');
+			tiny.append("FIELD\tc").append(i).append("\tI\ta\tfield_").append(i).append("\tfield").append(i).append('\n');
+			tiny.append("METHOD\tc").append(i).append("\t()V\tb\tmethod_").append(i).append("\tmethod").append(i).append('\n');
+		}
+
+		Mappings mappings = MappingsProvider.readTinyMappings(new ByteArrayInputStream(tiny.toString().getBytes(StandardCharsets.UTF_8)));
+		resolver = new FabricMappingResolver(() -> mappings, "named");
+		mapper = resolver.getNamespaceMapper("intermediary");
+
+		classNames = new String[LOOKUP_COUNT];
+		owners = new String[LOOKUP_COUNT];
+		methodNames = new String[LOOKUP_COUNT];
+		fieldNames = new String[LOOKUP_COUNT];
+		methodDescs = new String[LOOKUP_COUNT];
+		fieldDescs = new String[LOOKUP_COUNT];
+
+		for (int i = 0; i < LOOKUP_COUNT; i++) {
+			int cls = i * (CLASS_COUNT / LOOKUP_COUNT);
+			classNames[i] = owners[i] = "net.minecraft.class_" + cls;
+			methodNames[i] = "method_" + cls;
+			fieldNames[i] = "field_" + cls;
+			methodDescs[i] = "()V";
+			fieldDescs[i] = "I";
+		}
+
+		// build the tables outside of the measurement
+		mapper.mapClassNames(classNames);
+		mapper.mapFieldNames(owners, fieldNames, fieldDescs);
+		mapper.mapMethodNames(owners, methodNames, methodDescs);
+	}
+
+	@Benchmark
+	public void mapClassName(Blackhole bh) {
+		for (String name : classNames) {
+			bh.consume(resolver.mapClassName("intermediary", name));
+		}
+	}
+
+	@Benchmark
+	public void mapMethodName(Blackhole bh) {
+		for (int i = 0; i < LOOKUP_COUNT; i++) {
+			bh.consume(resolver.mapMethodName("intermediary", owners[i], methodNames[i], methodDescs[i]));
+		}
+	}
+
+	@Benchmark
+	public void mapFieldName(Blackhole bh) {
+		for (int i = 0; i < LOOKUP_COUNT; i++) {
+			bh.consume(resolver.mapFieldName("intermediary", owners[i], fieldNames[i], fieldDescs[i]));
+		}
+	}
+
+	@Benchmark
+	public String[] mapClassNamesBatch() {
+		return mapper.mapClassNames(classNames);
+	}
+
+	@Benchmark
+	public String[] mapMethodNamesBatch() {
+		return mapper.mapMethodNames(owners, methodNames, methodDescs);
+	}
+}
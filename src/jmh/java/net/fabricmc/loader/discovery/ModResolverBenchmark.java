@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.discovery;
+
+import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves synthetic mod sets: every mod depends on a few mods before it, and
+ * every fifth mod is a library shipped in several nested versions, which
+ * forces the SAT-based resolution path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModResolverBenchmark {
+	private static final Logger LOGGER = LogManager.getFormatterLogger("ModResolverBenchmark");
+	private static final String[] LIBRARY_VERSIONS = { "1.0.0", "1.1.0", "1.2.0-beta.1", "2.0.0" };
+
+	@Param({ "10", "100", "1000", "5000" })
+	public int modCount;
+
+	private ModResolver resolver;
+	private Map<String, ModCandidateSet> candidates;
+
+	@Setup
+	public void setup() throws MalformedURLException {
+		Random random = new Random(modCount);
+		resolver = new ModResolver();
+		candidates = new HashMap<>();
+
+		for (int i = 0; i < modCount; i++) {
+			String id = "mod" + i;
+			boolean library = i % 5 == 0;
+			StringBuilder depends = new StringBuilder();
+
+			for (int d = 0; i > 0 && d < 3; d++) {
+				int dep = random.nextInt(i);
+				String range = dep % 5 == 0 ? "^1.0.0" : ">=1.0.0";
+
+				if (depends.length() > 0) {
+					depends.append(", ");
+				}
+
+				depends.append('"').append("mod").append(dep).append("\": \"").append(range).append('"');
+			}
+
+			String breaks = i > 1 ? "\"mod" + random.nextInt(i) + "\": \"<0.1.0\"" : "";
+			ModCandidateSet set = new ModCandidateSet(id);
+
+			for (String version : library ? LIBRARY_VERSIONS : new String[] { "1.0.0" }) {
+				String json = "{\"schemaVersion\": 1, \"id\": \"" + id + "\", \"version\": \"" + version + "\", "
+					+ "\"depends\": {" + depends + "}, \"breaks\": {" + breaks + "}}";
+				LoaderModMetadata metadata = ModMetadataParser.getMods(FabricLoader.INSTANCE, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))[0];
+				set.add(new ModCandidate(metadata, new URL("file:/mods/" + id + "-" + version + ".jar"), library ? 1 : 0));
+			}
+
+			candidates.put(id, set);
+		}
+	}
+
+	@Benchmark
+	public Map<String, ModCandidate> findCompatibleSet() throws ModResolutionException {
+		return resolver.findCompatibleSet(LOGGER, candidates);
+	}
+}
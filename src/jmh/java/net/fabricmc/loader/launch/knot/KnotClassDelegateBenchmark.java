@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.knot;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.FabricLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KnotClassDelegateBenchmark {
+	private static final String[] CLASS_NAMES = {
+		FabricLoader.class.getName(),
+		KnotClassDelegate.class.getName(),
+		"org.objectweb.asm.ClassReader",
+		"com.google.gson.Gson"
+	};
+
+	private KnotClassDelegate delegate;
+
+	@Setup
+	public void setup() {
+		ClassLoader loader = KnotClassDelegateBenchmark.class.getClassLoader();
+		delegate = new KnotClassDelegate(false, EnvType.CLIENT, new KnotClassLoaderInterface() {
+			@Override
+			public KnotClassDelegate getDelegate() {
+				return delegate;
+			}
+
+			@Override
+			public boolean isClassLoaded(String name) {
+				return false;
+			}
+
+			@Override
+			public void addURL(URL url) {
+			}
+
+			@Override
+			public InputStream getResourceAsStream(String filename, boolean skipOriginalLoader) throws IOException {
+				return loader.getResourceAsStream(filename);
+			}
+
+			@Override
+			public URL getResource(String filename, boolean skipOriginalLoader) {
+				return loader.getResource(filename);
+			}
+		}, null);
+	}
+
+	@Benchmark
+	public void getClassByteArray(Blackhole bh) throws IOException {
+		for (String name : CLASS_NAMES) {
+			bh.consume(delegate.getClassByteArray(name, true));
+		}
+	}
+
+	@Benchmark
+	public void loadClassData(Blackhole bh) {
+		for (String name : CLASS_NAMES) {
+			bh.consume(delegate.loadClassData(name, false));
+		}
+	}
+
+	@Benchmark
+	public byte[] getMissingClassByteArray() throws IOException {
+		return delegate.getClassByteArray("net.fabricmc.loader.DoesNotExist", true);
+	}
+}
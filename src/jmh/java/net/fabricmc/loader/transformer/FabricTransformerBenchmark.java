@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.transformer;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.loader.metadata.ModMetadataV1;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FabricTransformerBenchmark {
+	public static class ClientOnlyMembers {
+		@Environment(EnvType.CLIENT)
+		public int clientField;
+
+		public int commonField;
+
+		@Environment(EnvType.CLIENT)
+		public void clientMethod() {
+			clientField++;
+		}
+
+		public void commonMethod() {
+			commonField++;
+		}
+	}
+
+	private byte[] plainClass;
+	private byte[] strippedClass;
+
+	@Setup
+	public void setup() throws IOException {
+		// A large class without any environment annotations, and a small one with some.
+		plainClass = readClass(ModMetadataV1.class);
+		strippedClass = readClass(ClientOnlyMembers.class);
+	}
+
+	private static byte[] readClass(Class<?> cls) throws IOException {
+		try (InputStream stream = cls.getClassLoader().getResourceAsStream(cls.getName().replace('.', '/') + ".class")) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int len;
+
+			while ((len = stream.read(buffer)) > 0) {
+				outputStream.write(buffer, 0, len);
+			}
+
+			return outputStream.toByteArray();
+		}
+	}
+
+	@Benchmark
+	public byte[] transformPlain() {
+		return FabricTransformer.transform(false, EnvType.SERVER, ModMetadataV1.class.getName(), plainClass);
+	}
+
+	@Benchmark
+	public byte[] transformStripped() {
+		return FabricTransformer.transform(false, EnvType.SERVER, ClientOnlyMembers.class.getName(), strippedClass);
+	}
+}
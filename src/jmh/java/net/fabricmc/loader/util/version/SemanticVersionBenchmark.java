@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util.version;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticVersionBenchmark {
+	// Same shapes as the cases in VersionParsingTests.
+	private static final String[] VERSIONS = {
+		"0.3.5",
+		"0.3.5-beta.2",
+		"0.3.5-alpha.6+build.120",
+		"0.3.5+build.3000",
+		"1.0.0-0.3.7",
+		"1.0.0-x.7.z.92",
+		"1.0.0+20130313144700",
+		"1.0.0-beta+exp.sha.5114f85",
+		"1.14.4",
+		"0.6.0+build.163"
+	};
+
+	private SemanticVersionImpl[] parsed;
+
+	@Setup
+	public void setup() throws VersionParsingException {
+		parsed = new SemanticVersionImpl[VERSIONS.length];
+
+		for (int i = 0; i < VERSIONS.length; i++) {
+			parsed[i] = new SemanticVersionImpl(VERSIONS[i], false);
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole bh) throws VersionParsingException {
+		for (String s : VERSIONS) {
+			bh.consume(new SemanticVersionImpl(s, false));
+		}
+	}
+
+	@Benchmark
+	public void parseCached(Blackhole bh) throws VersionParsingException {
+		for (String s : VERSIONS) {
+			bh.consume(VersionDeserializer.deserializeSemantic(s));
+		}
+	}
+
+	@Benchmark
+	public void parseWildcard(Blackhole bh) throws VersionParsingException {
+		bh.consume(new SemanticVersionImpl("1.14.x", true));
+		bh.consume(new SemanticVersionImpl("2.*", true));
+	}
+
+	@Benchmark
+	public void compare(Blackhole bh) {
+		for (SemanticVersionImpl a : parsed) {
+			for (SemanticVersionImpl b : parsed) {
+				bh.consume(a.compareTo(b));
+			}
+		}
+	}
+}
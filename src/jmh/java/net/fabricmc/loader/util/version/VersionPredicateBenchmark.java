@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util.version;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionPredicateBenchmark {
+	@Param({ ">=0.3.1-beta.2 <0.4.0", "1.3.x", "~1.2.3-beta.2", "^1.2.3", "*" })
+	public String predicate;
+
+	private SemanticVersionImpl[] versions;
+	private Predicate<SemanticVersionImpl> parsed;
+
+	@Setup
+	public void setup() throws VersionParsingException {
+		versions = new SemanticVersionImpl[] {
+			new SemanticVersionImpl("0.3.1-beta.2", false),
+			new SemanticVersionImpl("0.3.4+build.125", false),
+			new SemanticVersionImpl("1.2.4", false),
+			new SemanticVersionImpl("1.3.0-alpha.1", false),
+			new SemanticVersionImpl("2.0.0", false)
+		};
+		parsed = SemanticVersionPredicateParser.create(predicate);
+	}
+
+	@Benchmark
+	public Predicate<SemanticVersionImpl> create() throws VersionParsingException {
+		return SemanticVersionPredicateParser.create(predicate);
+	}
+
+	@Benchmark
+	public void test(Blackhole bh) {
+		for (SemanticVersionImpl version : versions) {
+			bh.consume(parsed.test(version));
+		}
+	}
+}
@@ -18,28 +18,161 @@ package net.fabricmc.loader;
 
 import net.fabricmc.loader.FabricLoader;
 import net.fabricmc.loader.ModContainer;
+import net.fabricmc.loader.api.EntrypointContainer;
 import net.fabricmc.loader.api.EntrypointException;
+import net.fabricmc.loader.api.EntrypointTiming;
 import net.fabricmc.loader.api.LanguageAdapter;
 import net.fabricmc.loader.api.LanguageAdapterException;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.metadata.EntrypointMetadata;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 class EntrypointStorage {
+	/**
+	 * If enabled, entrypoint objects are constructed concurrently so that class loading and transformation
+	 * of independent mods overlaps. Invocation always happens afterwards on the calling thread, in mod order.
+	 */
+	private static final boolean PARALLEL_INSTANTIATION = Boolean.parseBoolean(System.getProperty("fabric.loader.parallelEntrypoints", "false"));
+
 	static interface Entry {
 		<T> T getOrCreate(Class<T> type) throws Exception;
+		ModContainer getModContainer();
+		String getDefinition();
+	}
+
+	/**
+	 * An entry registered under a specific key, along with its timings for that key.
+	 */
+	private static final class KeyedEntry implements EntrypointTiming {
+		private final String key;
+		private final Entry entry;
+		private final AtomicLong instantiationTime = new AtomicLong();
+		private final AtomicLong invocationTime = new AtomicLong();
+
+		private KeyedEntry(String key, Entry entry) {
+			this.key = key;
+			this.entry = entry;
+		}
+
+		<T> T getOrCreate(Class<T> type) throws Exception {
+			long start = System.nanoTime();
+
+			try {
+				return entry.getOrCreate(type);
+			} finally {
+				addInstantiationTime(System.nanoTime() - start);
+			}
+		}
+
+		private void addInstantiationTime(long time) {
+			instantiationTime.addAndGet(time);
+		}
+
+		private void addInvocationTime(long time) {
+			invocationTime.addAndGet(time);
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public ModContainer getProvider() {
+			return entry.getModContainer();
+		}
+
+		@Override
+		public String getDefinition() {
+			return entry.getDefinition();
+		}
+
+		@Override
+		public long getInstantiationTime() {
+			return instantiationTime.get();
+		}
+
+		@Override
+		public long getInvocationTime() {
+			return invocationTime.get();
+		}
+
+		@Override
+		public String toString() {
+			return entry.toString();
+		}
+	}
+
+	/**
+	 * A view of a keyed entry for a specific type, which only creates the instance once requested.
+	 */
+	private static final class LazyContainer<T> implements EntrypointContainer<T> {
+		private final KeyedEntry entry;
+		private final Class<T> type;
+		private volatile boolean created;
+		private T instance;
+
+		private LazyContainer(KeyedEntry entry, Class<T> type) {
+			this.entry = entry;
+			this.type = type;
+		}
+
+		@Override
+		public T get() {
+			if (!created) {
+				synchronized (this) {
+					if (!created) {
+						try {
+							instance = entry.getOrCreate(type);
+						} catch (Exception e) {
+							throw new EntrypointException("Exception occured while creating '" + entry.getKey() + "' entrypoint @ " + entry, e);
+						}
+
+						created = true;
+					}
+				}
+			}
+
+			return instance;
+		}
+
+		@Override
+		public net.fabricmc.loader.api.ModContainer getProvider() {
+			return entry.getProvider();
+		}
+
+		@Override
+		public String getDefinition() {
+			return entry.getDefinition();
+		}
+
+		@Override
+		public String toString() {
+			return entry.toString();
+		}
 	}
 
 	private static class OldEntry implements Entry {
 		private static final net.fabricmc.loader.language.LanguageAdapter.Options options = net.fabricmc.loader.language.LanguageAdapter.Options.Builder.create()
 			.missingSuperclassBehaviour(net.fabricmc.loader.language.LanguageAdapter.MissingSuperclassBehavior.RETURN_NULL)
 			.build();
+		private static final Map<String, net.fabricmc.loader.language.LanguageAdapter> adapterCache = new ConcurrentHashMap<>();
 
 		private final ModContainer mod;
 		private final String languageAdapter;
 		private final String value;
+		private volatile boolean created;
 		private Object object;
 
 		private OldEntry(ModContainer mod, String languageAdapter, String value) {
@@ -53,11 +186,25 @@ class EntrypointStorage {
 			return mod.getInfo().getId() + "->" + value;
 		}
 
+		@Override
+		public ModContainer getModContainer() {
+			return mod;
+		}
+
+		@Override
+		public String getDefinition() {
+			return value;
+		}
+
 		@Override
 		public <T> T getOrCreate(Class<T> type) throws Exception {
-			if (object == null) {
-				net.fabricmc.loader.language.LanguageAdapter adapter = (net.fabricmc.loader.language.LanguageAdapter) Class.forName(languageAdapter, true, FabricLauncherBase.getLauncher().getTargetClassLoader()).getConstructor().newInstance();
-				object = adapter.createInstance(value, options);
+			if (!created) {
+				synchronized (this) {
+					if (!created) {
+						object = getAdapter(languageAdapter).createInstance(value, options);
+						created = true;
+					}
+				}
 			}
 
 			if (object == null || !type.isAssignableFrom(object.getClass())) {
@@ -67,13 +214,31 @@ class EntrypointStorage {
 				return (T) object;
 			}
 		}
+
+		private static net.fabricmc.loader.language.LanguageAdapter getAdapter(String name) throws Exception {
+			net.fabricmc.loader.language.LanguageAdapter adapter = adapterCache.get(name);
+
+			if (adapter == null) {
+				adapter = (net.fabricmc.loader.language.LanguageAdapter) Class.forName(name, true, FabricLauncherBase.getLauncher().getTargetClassLoader()).getConstructor().newInstance();
+				net.fabricmc.loader.language.LanguageAdapter prev = adapterCache.putIfAbsent(name, adapter);
+
+				if (prev != null) {
+					adapter = prev;
+				}
+			}
+
+			return adapter;
+		}
 	}
 
 	private static class NewEntry implements Entry {
+		// stands in for a null instance, which ConcurrentHashMap can't hold
+		private static final Object NULL_INSTANCE = new Object();
+
 		private final ModContainer mod;
 		private final LanguageAdapter adapter;
 		private final String value;
-		private final Map<Class<?>, Object> instanceMap = new IdentityHashMap<>();
+		private final Map<Class<?>, Object> instanceMap = new ConcurrentHashMap<>();
 
 		private NewEntry(ModContainer mod, LanguageAdapter adapter, String value) {
 			this.mod = mod;
@@ -86,13 +251,36 @@ class EntrypointStorage {
 			return mod.getInfo().getId() + "->(0.3.x)" + value;
 		}
 
+		@Override
+		public ModContainer getModContainer() {
+			return mod;
+		}
+
+		@Override
+		public String getDefinition() {
+			return value;
+		}
+
 		@Override
 		public <T> T getOrCreate(Class<T> type) throws Exception {
 			Object o = instanceMap.get(type);
+
 			if (o == null) {
-				o = create(type);
-				instanceMap.put(type, o);
+				// not computeIfAbsent: creating an entrypoint may look up other entrypoints of this entry
+				synchronized (this) {
+					o = instanceMap.get(type);
+
+					if (o == null) {
+						o = create(type);
+						instanceMap.put(type, o != null ? o : NULL_INSTANCE);
+					}
+				}
+			}
+
+			if (o == NULL_INSTANCE) {
+				return null;
 			}
+
 			//noinspection unchecked
 			return (T) o;
 		}
@@ -102,18 +290,18 @@ class EntrypointStorage {
 		}
 	}
 
-	private final Map<String, List<Entry>> entryMap = new HashMap<>();
+	private final Map<String, List<KeyedEntry>> entryMap = new ConcurrentHashMap<>();
 
-	private List<Entry> getOrCreateEntries(String key) {
-		return entryMap.computeIfAbsent(key, (z) -> new ArrayList<>());
+	private void addEntry(String key, Entry entry) {
+		entryMap.computeIfAbsent(key, (z) -> new CopyOnWriteArrayList<>()).add(new KeyedEntry(key, entry));
 	}
 
 	protected void addDeprecated(ModContainer modContainer, String adapter, String value) throws ClassNotFoundException, LanguageAdapterException {
 		FabricLoader.INSTANCE.getLogger().debug("Registering 0.3.x old-style initializer " + value + " for mod " + modContainer.getInfo().getId());
 		OldEntry oe = new OldEntry(modContainer, adapter, value);
-		getOrCreateEntries("main").add(oe);
-		getOrCreateEntries("client").add(oe);
-		getOrCreateEntries("server").add(oe);
+		addEntry("main", oe);
+		addEntry("client", oe);
+		addEntry("server", oe);
 	}
 
 	protected void add(ModContainer modContainer, String key, EntrypointMetadata metadata, Map<String, LanguageAdapter> adapterMap) throws Exception {
@@ -122,24 +310,74 @@ class EntrypointStorage {
 		}
 
 		FabricLoader.INSTANCE.getLogger().debug("Registering new-style initializer " + metadata.getValue() + " for mod " + modContainer.getInfo().getId() + " (key " + key + ")");
-		getOrCreateEntries(key).add(new NewEntry(
+		addEntry(key, new NewEntry(
 			modContainer, adapterMap.get(metadata.getAdapter()), metadata.getValue()
 		));
 	}
 
 	protected <T> List<T> getEntrypoints(String key, Class<T> type) {
-		List<Entry> entries = entryMap.get(key);
+		List<KeyedEntry> entries = entryMap.get(key);
 		if (entries == null) {
 			return Collections.emptyList();
 		}
 
-		boolean hadException = false;
 		List<T> results = new ArrayList<>(entries.size());
-		for (Entry entry : entries) {
+		createInstances(key, type, entries, (entry, result) -> results.add(result));
+		return results;
+	}
+
+	protected <T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type) {
+		List<KeyedEntry> entries = entryMap.get(key);
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+
+		List<EntrypointContainer<T>> results = new ArrayList<>(entries.size());
+
+		for (KeyedEntry entry : entries) {
+			results.add(new LazyContainer<>(entry, type));
+		}
+
+		return results;
+	}
+
+	protected <T> void invokeEntrypoints(String key, Class<T> type, Consumer<? super T> invoker) {
+		List<KeyedEntry> entries = entryMap.get(key);
+		if (entries == null) {
+			return;
+		}
+
+		List<KeyedEntry> instanceEntries = new ArrayList<>(entries.size());
+		List<T> instances = new ArrayList<>(entries.size());
+		createInstances(key, type, entries, (entry, result) -> {
+			instanceEntries.add(entry);
+			instances.add(result);
+		});
+
+		for (int i = 0; i < instances.size(); i++) {
+			long start = System.nanoTime();
+
+			try {
+				invoker.accept(instances.get(i));
+			} finally {
+				instanceEntries.get(i).addInvocationTime(System.nanoTime() - start);
+			}
+		}
+	}
+
+	private <T> void createInstances(String key, Class<T> type, List<KeyedEntry> entries, InstanceConsumer<T> consumer) {
+		if (PARALLEL_INSTANTIATION && entries.size() > 1) {
+			createInstancesParallel(key, type, entries, consumer);
+			return;
+		}
+
+		boolean hadException = false;
+
+		for (KeyedEntry entry : entries) {
 			try {
 				T result = entry.getOrCreate(type);
 				if (result != null) {
-					results.add(result);
+					consumer.accept(entry, result);
 				}
 			} catch (Exception e) {
 				hadException = true;
@@ -149,8 +387,67 @@ class EntrypointStorage {
 
 		if (hadException) {
 			throw new EntrypointException("Could not look up entries for entrypoint " + key + "!");
-		} else {
-			return results;
 		}
 	}
+
+	private <T> void createInstancesParallel(String key, Class<T> type, List<KeyedEntry> entries, InstanceConsumer<T> consumer) {
+		ClassLoader targetClassLoader = FabricLauncherBase.getLauncher().getTargetClassLoader();
+		AtomicInteger threadCount = new AtomicInteger();
+		int threads = Math.min(entries.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, (runnable) -> {
+			Thread thread = new Thread(runnable, "Fabric Entrypoint Worker #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setContextClassLoader(targetClassLoader);
+			return thread;
+		});
+
+		boolean hadException = false;
+
+		try {
+			List<Future<T>> futures = new ArrayList<>(entries.size());
+
+			for (KeyedEntry entry : entries) {
+				futures.add(executor.submit(() -> entry.getOrCreate(type)));
+			}
+
+			// results are consumed in registration order, regardless of completion order
+			for (int i = 0; i < entries.size(); i++) {
+				KeyedEntry entry = entries.get(i);
+
+				try {
+					T result = futures.get(i).get();
+					if (result != null) {
+						consumer.accept(entry, result);
+					}
+				} catch (ExecutionException e) {
+					hadException = true;
+					FabricLoader.INSTANCE.getLogger().error("Exception occured while getting '" + key + "' entrypoints @ " + entry, e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new EntrypointException("Interrupted while getting '" + key + "' entrypoints!", e);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (hadException) {
+			throw new EntrypointException("Could not look up entries for entrypoint " + key + "!");
+		}
+	}
+
+	@FunctionalInterface
+	private interface InstanceConsumer<T> {
+		void accept(KeyedEntry entry, T instance);
+	}
+
+	protected Collection<EntrypointTiming> getTimings() {
+		List<EntrypointTiming> ret = new ArrayList<>();
+
+		for (List<KeyedEntry> entries : entryMap.values()) {
+			ret.addAll(entries);
+		}
+
+		return ret;
+	}
 }
@@ -17,16 +17,25 @@
 package net.fabricmc.loader;
 
 import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.api.EntrypointContainer;
+import net.fabricmc.loader.api.EntrypointTiming;
 import net.fabricmc.loader.api.LanguageAdapter;
 import net.fabricmc.loader.api.MappingResolver;
 import net.fabricmc.loader.api.SemanticVersion;
+import net.fabricmc.loader.api.metadata.ModDependency;
 import net.fabricmc.loader.discovery.*;
 import net.fabricmc.loader.game.GameProvider;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.launch.knot.Knot;
+import net.fabricmc.loader.metadata.CompactModMetadata;
 import net.fabricmc.loader.metadata.EntrypointMetadata;
 import net.fabricmc.loader.metadata.LoaderModMetadata;
 import net.fabricmc.loader.util.DefaultLanguageAdapter;
+import net.fabricmc.mappings.ClassEntry;
+import net.fabricmc.mappings.EntryTriple;
+import net.fabricmc.mappings.FieldEntry;
+import net.fabricmc.mappings.Mappings;
+import net.fabricmc.mappings.MethodEntry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -34,6 +43,7 @@ import java.io.*;
 import java.net.URL;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -77,6 +87,7 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		}
 
 		frozen = true;
+		sortMods();
 		finishModLoading();
 	}
 
@@ -198,6 +209,24 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		return entrypointStorage.getEntrypoints(key, type);
 	}
 
+	@Override
+	public <T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type) {
+		return entrypointStorage.getEntrypointContainers(key, type);
+	}
+
+	/**
+	 * Invoke all entrypoints registered under a given key, recording how long
+	 * each invocation takes.
+	 */
+	public <T> void invokeEntrypoints(String key, Class<T> type, Consumer<? super T> invoker) {
+		entrypointStorage.invokeEntrypoints(key, type, invoker);
+	}
+
+	@Override
+	public Collection<EntrypointTiming> getEntrypointTimings() {
+		return entrypointStorage.getTimings();
+	}
+
 	@Override
 	public MappingResolver getMappingResolver() {
 		if (mappingResolver == null) {
@@ -256,7 +285,7 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 			return;
 		}
 
-		ModContainer container = new ModContainer(info, originUrl);
+		ModContainer container = new ModContainer(CompactModMetadata.compact(info), originUrl);
 		mods.add(container);
 		modMap.put(info.getId(), container);
 	}
@@ -271,37 +300,141 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		}
 	}
 
-	/* private void sortMods() {
+	/**
+	 * Sort the mod list so that every mod comes after the mods it depends on or recommends.
+	 *
+	 * <p>Whenever several mods could come next, the one with the lowest mod ID is picked, so the resulting
+	 * order is stable across launches. Mods that are part of a dependency cycle are appended once all
+	 * other mods have been placed, one cycle at a time in mod ID order, followed by the mods depending
+	 * on that cycle.</p>
+	 */
+	private void sortMods() {
 		LOGGER.debug("Sorting mods");
 
-		LinkedList<ModContainer> sorted = new LinkedList<>();
-		for (ModContainer mod : mods) {
-			if (sorted.isEmpty() || mod.getInfo().getRequires().size() == 0) {
-				sorted.addFirst(mod);
-			} else {
-				boolean b = false;
-				l1:
-				for (int i = 0; i < sorted.size(); i++) {
-					for (Map.Entry<String, ModMetadataV0.Dependency> entry : sorted.get(i).getInfo().getRequires().entrySet()) {
-						String depId = entry.getKey();
-						ModMetadataV0.Dependency dep = entry.getValue();
-
-						if (depId.equalsIgnoreCase(mod.getInfo().getId()) && dep.satisfiedBy(mod.getInfo())) {
-							sorted.add(i, mod);
-							b = true;
-							break l1;
-						}
-					}
+		List<ModContainer> byId = new ArrayList<>(mods);
+		byId.sort(Comparator.comparing((ModContainer mod) -> mod.getInfo().getId()));
+
+		Map<ModContainer, Set<ModContainer>> dependencyMap = new HashMap<>();
+		Map<ModContainer, List<ModContainer>> dependents = new HashMap<>();
+		Map<ModContainer, Integer> unsortedDependencies = new HashMap<>();
+
+		for (ModContainer mod : byId) {
+			Set<ModContainer> dependencies = new LinkedHashSet<>();
+			addDependencyEdges(mod, mod.getInfo().getDepends(), dependencies);
+			addDependencyEdges(mod, mod.getInfo().getRecommends(), dependencies);
+
+			for (ModContainer dependency : dependencies) {
+				dependents.computeIfAbsent(dependency, (m) -> new ArrayList<>()).add(mod);
+			}
+
+			dependencyMap.put(mod, dependencies);
+			unsortedDependencies.put(mod, dependencies.size());
+		}
+
+		List<ModContainer> sorted = new ArrayList<>(mods.size());
+		Queue<ModContainer> ready = new PriorityQueue<>(Comparator.comparing((ModContainer mod) -> mod.getInfo().getId()));
+
+		for (ModContainer mod : byId) {
+			if (unsortedDependencies.get(mod) == 0) {
+				ready.add(mod);
+			}
+		}
+
+		while (!ready.isEmpty()) {
+			ModContainer mod = ready.remove();
+			sorted.add(mod);
+
+			for (ModContainer dependent : dependents.getOrDefault(mod, Collections.emptyList())) {
+				if (unsortedDependencies.merge(dependent, -1, Integer::sum) == 0) {
+					ready.add(dependent);
 				}
+			}
+		}
 
-				if (!b) {
-					sorted.addLast(mod);
+		if (sorted.size() != byId.size()) {
+			// the remaining mods either form cycles or depend on one; Tarjan's algorithm finishes each
+			// strongly connected component only after everything it depends on, giving their load order
+			CycleSorter cycleSorter = new CycleSorter(dependencyMap, unsortedDependencies, sorted);
+
+			for (ModContainer mod : byId) {
+				if (unsortedDependencies.get(mod) > 0 && !cycleSorter.index.containsKey(mod)) {
+					cycleSorter.visit(mod);
 				}
 			}
 		}
 
 		mods = sorted;
-	} */
+	}
+
+	private static final class CycleSorter {
+		private final Map<ModContainer, Set<ModContainer>> dependencyMap;
+		private final Map<ModContainer, Integer> unsortedDependencies;
+		private final List<ModContainer> sorted;
+		private final Map<ModContainer, Integer> index = new HashMap<>();
+		private final Map<ModContainer, Integer> lowLink = new HashMap<>();
+		private final Deque<ModContainer> stack = new ArrayDeque<>();
+		private final Set<ModContainer> onStack = new HashSet<>();
+
+		private CycleSorter(Map<ModContainer, Set<ModContainer>> dependencyMap, Map<ModContainer, Integer> unsortedDependencies, List<ModContainer> sorted) {
+			this.dependencyMap = dependencyMap;
+			this.unsortedDependencies = unsortedDependencies;
+			this.sorted = sorted;
+		}
+
+		private void visit(ModContainer mod) {
+			int modIndex = index.size();
+			index.put(mod, modIndex);
+			lowLink.put(mod, modIndex);
+			stack.push(mod);
+			onStack.add(mod);
+
+			for (ModContainer dependency : dependencyMap.get(mod)) {
+				if (unsortedDependencies.get(dependency) == 0) {
+					continue; // already placed
+				}
+
+				if (!index.containsKey(dependency)) {
+					visit(dependency);
+					lowLink.put(mod, Math.min(lowLink.get(mod), lowLink.get(dependency)));
+				} else if (onStack.contains(dependency)) {
+					lowLink.put(mod, Math.min(lowLink.get(mod), index.get(dependency)));
+				}
+			}
+
+			if (lowLink.get(mod) != modIndex) {
+				return;
+			}
+
+			List<ModContainer> component = new ArrayList<>();
+			ModContainer member;
+
+			do {
+				member = stack.pop();
+				onStack.remove(member);
+				component.add(member);
+			} while (member != mod);
+
+			component.sort(Comparator.comparing((ModContainer m) -> m.getInfo().getId()));
+
+			if (component.size() > 1) {
+				for (ModContainer m : component) {
+					LOGGER.debug("Mod " + m.getInfo().getId() + " is part of a dependency cycle, its load order is not guaranteed");
+				}
+			}
+
+			sorted.addAll(component);
+		}
+	}
+
+	private void addDependencyEdges(ModContainer mod, Collection<ModDependency> dependencies, Set<ModContainer> out) {
+		for (ModDependency dependency : dependencies) {
+			ModContainer target = modMap.get(dependency.getModId());
+
+			if (target != null && target != mod) {
+				out.add(target);
+			}
+		}
+	}
 
 	public void instantiateMods(File newRunDir, Object gameInstance) {
 		if (!frozen) {
@@ -390,6 +523,91 @@ public class FabricLoader implements net.fabricmc.loader.api.FabricLoader {
 		}
 	}
 
+	/**
+	 * Release data only needed while launching, once all mods have been initialized.
+	 */
+	public void releaseLaunchData() {
+		List<URL> usedUrls = new ArrayList<>(mods.size());
+
+		for (ModContainer mod : mods) {
+			usedUrls.add(mod.getOriginUrl());
+		}
+
+		long nestedJarBytes = ModResolver.releaseUnusedJars(usedUrls);
+		long patchedClassBytes = 0;
+
+		if (FabricLauncherBase.getLauncher() instanceof Knot) {
+			patchedClassBytes = provider.getEntrypointTransformer().releaseLoadedClasses(FabricLauncherBase.getLauncher()::isClassLoaded);
+		}
+
+		Mappings mappings = null;
+
+		// development mappings stay referenced by the Mixin remapper
+		if (!isDevelopmentEnvironment()) {
+			mappings = FabricLauncherBase.getLauncher().getMappingConfiguration().releaseMappings();
+		}
+
+		if (getLogger().isDebugEnabled()) {
+			long mappingsBytes = mappings != null ? estimateMappingsSize(mappings) : 0;
+
+			getLogger().debug(String.format("Released launch data: %d KiB in total, %d KiB of unused nested JARs, %d KiB of patched classes, ~%d KiB of mappings (estimated)",
+				(nestedJarBytes + patchedClassBytes + mappingsBytes) / 1024, nestedJarBytes / 1024, patchedClassBytes / 1024, mappingsBytes / 1024));
+		}
+	}
+
+	/**
+	 * Roughly estimate the heap retained by the given mappings, assuming a 64-bit JVM with compressed oops
+	 * and compact strings. Each distinct string is counted once, as names are shared between entries.
+	 */
+	private static long estimateMappingsSize(Mappings mappings) {
+		final int entryBytes = 16 + 48; // entry object and its namespace map
+		final int namespaceBytes = 32; // map node per namespace
+		final int tripleBytes = 24; // owner, name and descriptor of a field or method
+		Collection<String> namespaces = mappings.getNamespaces();
+		Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+		long bytes = 0;
+
+		for (ClassEntry entry : mappings.getClassEntries()) {
+			bytes += entryBytes + namespaces.size() * namespaceBytes;
+
+			for (String namespace : namespaces) {
+				strings.add(entry.get(namespace));
+			}
+		}
+
+		for (FieldEntry entry : mappings.getFieldEntries()) {
+			bytes += entryBytes + namespaces.size() * (namespaceBytes + tripleBytes);
+
+			for (String namespace : namespaces) {
+				addTripleStrings(entry.get(namespace), strings);
+			}
+		}
+
+		for (MethodEntry entry : mappings.getMethodEntries()) {
+			bytes += entryBytes + namespaces.size() * (namespaceBytes + tripleBytes);
+
+			for (String namespace : namespaces) {
+				addTripleStrings(entry.get(namespace), strings);
+			}
+		}
+
+		for (String string : strings) {
+			if (string != null) {
+				bytes += 24 + 16 + string.length(); // String object, byte array header and contents
+			}
+		}
+
+		return bytes;
+	}
+
+	private static void addTripleStrings(EntryTriple triple, Set<String> strings) {
+		if (triple != null) {
+			strings.add(triple.getOwner());
+			strings.add(triple.getName());
+			strings.add(triple.getDesc());
+		}
+	}
+
 	public Logger getLogger() {
 		return LOGGER;
 	}
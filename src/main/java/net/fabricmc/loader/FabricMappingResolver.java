@@ -20,20 +20,187 @@ import net.fabricmc.loader.api.MappingResolver;
 import net.fabricmc.mappings.*;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 class FabricMappingResolver implements MappingResolver {
 	private final Supplier<Mappings> mappingsSupplier;
 	private final Set<String> namespaces;
-	private final Map<String, NamespaceData> namespaceDataMap = new HashMap<>();
+	private final Map<String, NamespaceData> namespaceDataMap = new ConcurrentHashMap<>();
 	private final String targetNamespace;
 
-	private static class NamespaceData {
-		private final Map<String, String> classNames = new HashMap<>();
-		private final Map<String, String> classNamesInverse = new HashMap<>();
-		private final Map<EntryTriple, String> fieldNames = new HashMap<>();
-		private final Map<EntryTriple, String> methodNames = new HashMap<>();
+	/**
+	 * A member mapping, chained by descriptor for members sharing an owner and a name.
+	 */
+	private static final class MemberEntry {
+		private final String desc;
+		private final String target;
+		private final MemberEntry next;
+
+		private MemberEntry(String desc, String target, MemberEntry next) {
+			this.desc = desc;
+			this.target = target;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * Mapping tables for a single source namespace. Each table is built on first
+	 * use and never modified afterwards, so lookups need no locking.
+	 */
+	private final class NamespaceData implements MappingResolver.NamespaceMapper {
+		private final String namespace;
+		private volatile Map<String, String> classNames;
+		private volatile Map<String, String> classNamesInverse;
+		private volatile Map<String, Map<String, MemberEntry>> fieldNames;
+		private volatile Map<String, Map<String, MemberEntry>> methodNames;
+
+		private NamespaceData(String namespace) {
+			this.namespace = namespace;
+		}
+
+		@Override
+		public String getNamespace() {
+			return namespace;
+		}
+
+		@Override
+		public String mapClassName(String className) {
+			checkDotFormat(className);
+			return getClassNames().getOrDefault(className, className);
+		}
+
+		@Override
+		public String unmapClassName(String className) {
+			checkDotFormat(className);
+			return getClassNamesInverse().getOrDefault(className, className);
+		}
+
+		@Override
+		public String mapFieldName(String owner, String name, String descriptor) {
+			checkDotFormat(owner);
+			return lookupMember(getFieldNames(), owner, name, descriptor);
+		}
+
+		@Override
+		public String mapMethodName(String owner, String name, String descriptor) {
+			checkDotFormat(owner);
+			return lookupMember(getMethodNames(), owner, name, descriptor);
+		}
+
+		@Override
+		public String[] mapClassNames(String[] classNames) {
+			Map<String, String> table = getClassNames();
+			String[] ret = new String[classNames.length];
+
+			for (int i = 0; i < classNames.length; i++) {
+				checkDotFormat(classNames[i]);
+				ret[i] = table.getOrDefault(classNames[i], classNames[i]);
+			}
+
+			return ret;
+		}
+
+		@Override
+		public String[] mapFieldNames(String[] owners, String[] names, String[] descriptors) {
+			return lookupMembers(getFieldNames(), owners, names, descriptors);
+		}
+
+		@Override
+		public String[] mapMethodNames(String[] owners, String[] names, String[] descriptors) {
+			return lookupMembers(getMethodNames(), owners, names, descriptors);
+		}
+
+		private Map<String, String> getClassNames() {
+			Map<String, String> ret = classNames;
+
+			if (ret == null) {
+				synchronized (this) {
+					if ((ret = classNames) == null) {
+						buildClassNames();
+						ret = classNames;
+					}
+				}
+			}
+
+			return ret;
+		}
+
+		private Map<String, String> getClassNamesInverse() {
+			Map<String, String> ret = classNamesInverse;
+
+			if (ret == null) {
+				synchronized (this) {
+					if ((ret = classNamesInverse) == null) {
+						buildClassNames();
+						ret = classNamesInverse;
+					}
+				}
+			}
+
+			return ret;
+		}
+
+		private Map<String, Map<String, MemberEntry>> getFieldNames() {
+			Map<String, Map<String, MemberEntry>> ret = fieldNames;
+
+			if (ret == null) {
+				synchronized (this) {
+					if ((ret = fieldNames) == null) {
+						fieldNames = ret = buildMemberNames(mappingsSupplier.get().getFieldEntries(), FieldEntry::get);
+					}
+				}
+			}
+
+			return ret;
+		}
+
+		private Map<String, Map<String, MemberEntry>> getMethodNames() {
+			Map<String, Map<String, MemberEntry>> ret = methodNames;
+
+			if (ret == null) {
+				synchronized (this) {
+					if ((ret = methodNames) == null) {
+						methodNames = ret = buildMemberNames(mappingsSupplier.get().getMethodEntries(), MethodEntry::get);
+					}
+				}
+			}
+
+			return ret;
+		}
+
+		private void buildClassNames() {
+			Map<String, String> names = new HashMap<>();
+			Map<String, String> namesInverse = new HashMap<>();
+
+			for (ClassEntry classEntry : mappingsSupplier.get().getClassEntries()) {
+				String fromClass = toDotFormat(classEntry.get(namespace));
+				String toClass = toDotFormat(classEntry.get(targetNamespace));
+
+				names.put(fromClass, toClass);
+				namesInverse.put(toClass, fromClass);
+			}
+
+			classNamesInverse = namesInverse;
+			classNames = names;
+		}
+
+		private <E> Map<String, Map<String, MemberEntry>> buildMemberNames(Collection<E> entries, EntryGetter<E> getter) {
+			Map<String, Map<String, MemberEntry>> ret = new HashMap<>();
+
+			for (E entry : entries) {
+				EntryTriple from = getter.get(entry, namespace);
+				Map<String, MemberEntry> ownerMap = ret.computeIfAbsent(toDotFormat(from.getOwner()), (owner) -> new HashMap<>());
+				ownerMap.put(from.getName(), new MemberEntry(from.getDesc(), getter.get(entry, targetNamespace).getName(), ownerMap.get(from.getName())));
+			}
+
+			return ret;
+		}
+	}
+
+	@FunctionalInterface
+	private interface EntryGetter<E> {
+		EntryTriple get(E entry, String namespace);
 	}
 
 	FabricMappingResolver(Supplier<Mappings> mappingsSupplier, String targetNamespace) {
@@ -42,36 +209,57 @@ class FabricMappingResolver implements MappingResolver {
 		namespaces = Collections.unmodifiableSet(new HashSet<>(mappingsSupplier.get().getNamespaces()));
 	}
 
-	protected final NamespaceData getNamespaceData(String namespace) {
-		return namespaceDataMap.computeIfAbsent(namespace, (ns) -> {
-			if (!namespaces.contains(namespace)) {
-				throw new IllegalArgumentException("Unknown namespace: " + namespace);
-			}
+	private static String toDotFormat(String className) {
+		return className.replace('/', '.');
+	}
+
+	private static void checkDotFormat(String className) {
+		if (className.indexOf('/') >= 0) {
+			throw new IllegalArgumentException("Class names must be provided in dot format: " + className);
+		}
+	}
 
-			NamespaceData data = new NamespaceData();
-			Mappings mappings = mappingsSupplier.get();
-			Map<String, String> classNameMap = new HashMap<>();
-			Function<String, String> classMapper = (s) -> classNameMap.computeIfAbsent(s, (cname) -> cname.replace('/', '.'));
-			Function<EntryTriple, EntryTriple> tripletMapper = (s) -> new EntryTriple(classMapper.apply(s.getOwner()), s.getName(), s.getDesc());
+	private static String[] lookupMembers(Map<String, Map<String, MemberEntry>> table, String[] owners, String[] names, String[] descriptors) {
+		if (owners.length != names.length || names.length != descriptors.length) {
+			throw new IllegalArgumentException("Mismatched member array lengths: " + owners.length + " owners, " + names.length + " names, " + descriptors.length + " descriptors");
+		}
 
-			for (ClassEntry classEntry : mappings.getClassEntries()) {
-				String fromClass = classMapper.apply(classEntry.get(ns));
-				String toClass = classMapper.apply(classEntry.get(targetNamespace));
+		String[] ret = new String[names.length];
 
-				data.classNames.put(fromClass, toClass);
-				data.classNamesInverse.put(toClass, fromClass);
-			}
+		for (int i = 0; i < names.length; i++) {
+			checkDotFormat(owners[i]);
+			ret[i] = lookupMember(table, owners[i], names[i], descriptors[i]);
+		}
+
+		return ret;
+	}
+
+	private static String lookupMember(Map<String, Map<String, MemberEntry>> table, String owner, String name, String descriptor) {
+		Map<String, MemberEntry> ownerMap = table.get(owner);
 
-			for (FieldEntry fieldEntry : mappings.getFieldEntries()) {
-				data.fieldNames.put(tripletMapper.apply(fieldEntry.get(ns)), fieldEntry.get(targetNamespace).getName());
+		if (ownerMap != null) {
+			for (MemberEntry entry = ownerMap.get(name); entry != null; entry = entry.next) {
+				if (entry.desc.equals(descriptor)) {
+					return entry.target;
+				}
 			}
+		}
+
+		return name;
+	}
 
-			for (MethodEntry methodEntry : mappings.getMethodEntries()) {
-				data.methodNames.put(tripletMapper.apply(methodEntry.get(ns)), methodEntry.get(targetNamespace).getName());
+	protected final NamespaceData getNamespaceData(String namespace) {
+		NamespaceData data = namespaceDataMap.get(namespace);
+
+		if (data == null) {
+			if (!namespaces.contains(namespace)) {
+				throw new IllegalArgumentException("Unknown namespace: " + namespace);
 			}
 
-			return data;
-		});
+			data = namespaceDataMap.computeIfAbsent(namespace, NamespaceData::new);
+		}
+
+		return data;
 	}
 
 	@Override
@@ -85,38 +273,27 @@ class FabricMappingResolver implements MappingResolver {
 	}
 
 	@Override
-	public String mapClassName(String namespace, String className) {
-		if (className.indexOf('/') >= 0) {
-			throw new IllegalArgumentException("Class names must be provided in dot format: " + className);
-		}
+	public MappingResolver.NamespaceMapper getNamespaceMapper(String namespace) {
+		return getNamespaceData(namespace);
+	}
 
-		return getNamespaceData(namespace).classNames.getOrDefault(className, className);
+	@Override
+	public String mapClassName(String namespace, String className) {
+		return getNamespaceData(namespace).mapClassName(className);
 	}
 
 	@Override
 	public String unmapClassName(String namespace, String className) {
-		if (className.indexOf('/') >= 0) {
-			throw new IllegalArgumentException("Class names must be provided in dot format: " + className);
-		}
-
-		return getNamespaceData(namespace).classNamesInverse.getOrDefault(className, className);
+		return getNamespaceData(namespace).unmapClassName(className);
 	}
 
 	@Override
 	public String mapFieldName(String namespace, String owner, String name, String descriptor) {
-		if (owner.indexOf('/') >= 0) {
-			throw new IllegalArgumentException("Class names must be provided in dot format: " + owner);
-		}
-
-		return getNamespaceData(namespace).fieldNames.getOrDefault(new EntryTriple(owner, name, descriptor), name);
+		return getNamespaceData(namespace).mapFieldName(owner, name, descriptor);
 	}
 
 	@Override
 	public String mapMethodName(String namespace, String owner, String name, String descriptor) {
-		if (owner.indexOf('/') >= 0) {
-			throw new IllegalArgumentException("Class names must be provided in dot format: " + owner);
-		}
-
-		return getNamespaceData(namespace).methodNames.getOrDefault(new EntryTriple(owner, name, descriptor), name);
+		return getNamespaceData(namespace).mapMethodName(owner, name, descriptor);
 	}
 }
@@ -25,16 +25,21 @@ import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class ModContainer implements net.fabricmc.loader.api.ModContainer {
 	private final LoaderModMetadata info;
 	private final URL originUrl;
 	private Path root;
+	private volatile Optional<ModResourceIndex> resourceIndex;
 
 	public ModContainer(LoaderModMetadata info, URL originUrl) {
 		this.info = info;
@@ -78,6 +83,65 @@ public class ModContainer implements net.fabricmc.loader.api.ModContainer {
 		return root;
 	}
 
+	@Override
+	public List<String> getEntries(String prefix) throws IOException {
+		Optional<ModResourceIndex> index = getResourceIndex();
+		return index.isPresent() ? index.get().getEntries(prefix) : net.fabricmc.loader.api.ModContainer.super.getEntries(prefix);
+	}
+
+	@Override
+	public boolean hasEntry(String file) {
+		Optional<ModResourceIndex> index;
+
+		try {
+			index = getResourceIndex();
+		} catch (IOException e) {
+			return false;
+		}
+
+		return index.isPresent() ? index.get().hasEntry(file) : net.fabricmc.loader.api.ModContainer.super.hasEntry(file);
+	}
+
+	@Override
+	public InputStream openEntry(String file) throws IOException {
+		Optional<ModResourceIndex> index = getResourceIndex();
+		return index.isPresent() ? index.get().openEntry(file) : net.fabricmc.loader.api.ModContainer.super.openEntry(file);
+	}
+
+	/**
+	 * Only JARs on the default file system are indexed. Directories may change while the game runs,
+	 * and nested JARs held in memory have no file to open.
+	 */
+	private Optional<ModResourceIndex> getResourceIndex() throws IOException {
+		Optional<ModResourceIndex> index = resourceIndex;
+
+		if (index == null) {
+			synchronized (this) {
+				index = resourceIndex;
+
+				if (index == null) {
+					Path holder;
+
+					try {
+						holder = UrlUtil.asPath(originUrl);
+					} catch (UrlConversionException e) {
+						throw new IOException(e);
+					}
+
+					if (holder.getFileSystem() == FileSystems.getDefault() && Files.isRegularFile(holder)) {
+						index = Optional.of(new ModResourceIndex(holder.toFile()));
+					} else {
+						index = Optional.empty();
+					}
+
+					resourceIndex = index;
+				}
+			}
+		}
+
+		return index;
+	}
+
 	public LoaderModMetadata getInfo() {
 		return info;
 	}
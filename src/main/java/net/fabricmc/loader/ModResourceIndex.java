@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Sorted index of the files in a mod JAR, read from its central directory.
+ *
+ * <p>The JAR stays open for as long as the index is used, like the JAR file system
+ * {@link ModContainer} opens for the mod's root path.</p>
+ */
+final class ModResourceIndex {
+	private final ZipFile zipFile;
+	private final List<String> entries;
+
+	ModResourceIndex(File file) throws IOException {
+		zipFile = new ZipFile(file);
+
+		List<String> names = new ArrayList<>(zipFile.size());
+		Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+
+		while (zipEntries.hasMoreElements()) {
+			ZipEntry entry = zipEntries.nextElement();
+
+			if (!entry.isDirectory()) {
+				names.add(entry.getName());
+			}
+		}
+
+		String[] sorted = names.toArray(new String[0]);
+		Arrays.sort(sorted);
+		entries = Collections.unmodifiableList(Arrays.asList(sorted));
+	}
+
+	private static String normalize(String file) {
+		return file.startsWith("/") ? file.substring(1) : file;
+	}
+
+	/**
+	 * @return A view of the entries starting with the prefix.
+	 */
+	List<String> getEntries(String prefix) {
+		prefix = normalize(prefix);
+		int start = Collections.binarySearch(entries, prefix);
+
+		if (start < 0) {
+			start = -start - 1;
+		}
+
+		// every entry starting with the prefix sorts before this
+		int end = Collections.binarySearch(entries, prefix + Character.MAX_VALUE);
+
+		if (end < 0) {
+			end = -end - 1;
+		}
+
+		return entries.subList(start, end);
+	}
+
+	boolean hasEntry(String file) {
+		return Collections.binarySearch(entries, normalize(file)) >= 0;
+	}
+
+	InputStream openEntry(String file) throws IOException {
+		file = normalize(file);
+
+		if (!hasEntry(file)) {
+			throw new NoSuchFileException(file);
+		}
+
+		return zipFile.getInputStream(zipFile.getEntry(file));
+	}
+}
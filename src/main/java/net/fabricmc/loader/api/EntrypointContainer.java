@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.api;
+
+/**
+ * A lazily instantiated entrypoint, along with the mod that provides it.
+ *
+ * @param <T> The entrypoint type.
+ * @since 0.6.0
+ */
+public interface EntrypointContainer<T> {
+	/**
+	 * Get the entrypoint instance, creating it on the first call.
+	 *
+	 * <p>Legacy 0.3.x initializers are registered under every environment key,
+	 * so this returns null if such an initializer does not implement the
+	 * requested type.</p>
+	 *
+	 * @return The entrypoint instance.
+	 * @throws EntrypointException If the entrypoint could not be created.
+	 */
+	T get();
+
+	/**
+	 * @return The mod providing the entrypoint.
+	 */
+	ModContainer getProvider();
+
+	/**
+	 * @return The entrypoint definition, as written in the mod's metadata.
+	 */
+	String getDefinition();
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.api;
+
+/**
+ * Timing information for a single entrypoint registered under a given key,
+ * as recorded by the loader.
+ *
+ * @since 0.6.0
+ */
+public interface EntrypointTiming {
+	/**
+	 * @return The entrypoint key, such as "main" or "client".
+	 */
+	String getKey();
+
+	/**
+	 * @return The mod providing the entrypoint.
+	 */
+	ModContainer getProvider();
+
+	/**
+	 * @return The entrypoint definition, as written in the mod's metadata.
+	 */
+	String getDefinition();
+
+	/**
+	 * @return The time spent creating the entrypoint instance, in nanoseconds.
+	 */
+	long getInstantiationTime();
+
+	/**
+	 * @return The time spent invoking the entrypoint during the loader's own
+	 * initialization stages, in nanoseconds.
+	 */
+	long getInvocationTime();
+}
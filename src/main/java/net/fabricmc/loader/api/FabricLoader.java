@@ -39,6 +39,27 @@ public interface FabricLoader {
 
 	<T> List<T> getEntrypoints(String key, Class<T> type);
 
+	/**
+	 * Get the entrypoints registered under a given key without instantiating them.
+	 *
+	 * <p>Each entrypoint is only created once {@link EntrypointContainer#get()} is
+	 * called on its container, so unused entrypoints never have their classes loaded.</p>
+	 *
+	 * @param key The entrypoint key.
+	 * @param type The entrypoint type.
+	 * @param <T> The entrypoint type.
+	 * @return The entrypoint containers, in mod order.
+	 * @since 0.6.0
+	 */
+	<T> List<EntrypointContainer<T>> getEntrypointContainers(String key, Class<T> type);
+
+	/**
+	 * Get the time spent creating and invoking each entrypoint so far.
+	 * @return The timings of all registered entrypoints.
+	 * @since 0.6.0
+	 */
+	Collection<EntrypointTiming> getEntrypointTimings();
+
 	/**
 	 * Get the current mapping resolver.
 	 * @return The current mapping resolver instance.
@@ -55,6 +76,10 @@ public interface FabricLoader {
 
 	/**
 	 * Gets all mod containers.
+	 *
+	 * <p>Mods are ordered so that each mod comes after the mods it depends on or recommends.
+	 * The same order is used when invoking entrypoints.</p>
+	 *
 	 * @return A collection of all loaded mod containers.
 	 */
 	Collection<ModContainer> getAllMods();
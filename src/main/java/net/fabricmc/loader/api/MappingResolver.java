@@ -17,6 +17,7 @@
 package net.fabricmc.loader.api;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 /**
  * Helper class for performing mapping resolution.
@@ -80,4 +81,194 @@ public interface MappingResolver {
 	 * @return The mapped method name, or name if such a mapping is not present.
 	 */
 	String mapMethodName(String namespace, String owner, String name, String descriptor);
+
+	/**
+	 * Map a batch of class names to the mapping currently used at runtime.
+	 *
+	 * @param namespace The namespace of the provided class names.
+	 * @param classNames The provided class names, in dot-format ("mypackage.MyClass$Inner").
+	 * @return A new array holding the mapped class names, in the same order as the input.
+	 * @since 0.6.0
+	 */
+	default String[] mapClassNames(String namespace, String[] classNames) {
+		return getNamespaceMapper(namespace).mapClassNames(classNames);
+	}
+
+	/**
+	 * Map a stream of class names to the mapping currently used at runtime.
+	 *
+	 * @param namespace The namespace of the provided class names.
+	 * @param classNames The provided class names, in dot-format ("mypackage.MyClass$Inner").
+	 * @return A stream of the mapped class names, in the same order as the input.
+	 * @since 0.6.0
+	 */
+	default Stream<String> mapClassNames(String namespace, Stream<String> classNames) {
+		return getNamespaceMapper(namespace).mapClassNames(classNames);
+	}
+
+	/**
+	 * Map a batch of field names to the mapping currently used at runtime.
+	 *
+	 * <p>The three arrays describe one field per index and must have the same length.
+	 *
+	 * @param namespace The namespace of the provided field names.
+	 * @param owners The owners of the fields, in dot-format ("mypackage.MyClass$Inner").
+	 * @param names The names of the fields.
+	 * @param descriptors The descriptors of the fields.
+	 * @return A new array holding the mapped field names, in the same order as the input.
+	 * @since 0.6.0
+	 */
+	default String[] mapFieldNames(String namespace, String[] owners, String[] names, String[] descriptors) {
+		return getNamespaceMapper(namespace).mapFieldNames(owners, names, descriptors);
+	}
+
+	/**
+	 * Map a batch of method names to the mapping currently used at runtime.
+	 *
+	 * <p>The three arrays describe one method per index and must have the same length.
+	 *
+	 * @param namespace The namespace of the provided method names.
+	 * @param owners The owners of the methods, in dot-format ("mypackage.MyClass$Inner").
+	 * @param names The names of the methods.
+	 * @param descriptors The descriptors of the methods.
+	 * @return A new array holding the mapped method names, in the same order as the input.
+	 * @since 0.6.0
+	 */
+	default String[] mapMethodNames(String namespace, String[] owners, String[] names, String[] descriptors) {
+		return getNamespaceMapper(namespace).mapMethodNames(owners, names, descriptors);
+	}
+
+	/**
+	 * Get a mapper bound to a single source namespace. Mods performing many
+	 * lookups should keep the returned instance around, as it skips the
+	 * namespace lookup on every call.
+	 *
+	 * @param namespace The namespace names will be provided in.
+	 * @return The mapper for the given namespace.
+	 * @throws IllegalArgumentException If the namespace is not available.
+	 * @since 0.6.0
+	 */
+	default NamespaceMapper getNamespaceMapper(String namespace) {
+		if (!getNamespaces().contains(namespace)) {
+			throw new IllegalArgumentException("Unknown namespace: " + namespace);
+		}
+
+		MappingResolver resolver = this;
+
+		return new NamespaceMapper() {
+			@Override
+			public String getNamespace() {
+				return namespace;
+			}
+
+			@Override
+			public String mapClassName(String className) {
+				return resolver.mapClassName(namespace, className);
+			}
+
+			@Override
+			public String unmapClassName(String className) {
+				return resolver.unmapClassName(namespace, className);
+			}
+
+			@Override
+			public String mapFieldName(String owner, String name, String descriptor) {
+				return resolver.mapFieldName(namespace, owner, name, descriptor);
+			}
+
+			@Override
+			public String mapMethodName(String owner, String name, String descriptor) {
+				return resolver.mapMethodName(namespace, owner, name, descriptor);
+			}
+		};
+	}
+
+	/**
+	 * A mapping helper bound to a single namespace, obtained through
+	 * {@link MappingResolver#getNamespaceMapper(String)}. All names follow the
+	 * same conventions as the equivalent {@link MappingResolver} methods.
+	 *
+	 * @since 0.6.0
+	 */
+	interface NamespaceMapper {
+		/**
+		 * Get the namespace this mapper was bound to.
+		 * @return The namespace this mapper was bound to.
+		 */
+		String getNamespace();
+
+		/**
+		 * @see MappingResolver#mapClassName(String, String)
+		 */
+		String mapClassName(String className);
+
+		/**
+		 * @see MappingResolver#unmapClassName(String, String)
+		 */
+		String unmapClassName(String className);
+
+		/**
+		 * @see MappingResolver#mapFieldName(String, String, String, String)
+		 */
+		String mapFieldName(String owner, String name, String descriptor);
+
+		/**
+		 * @see MappingResolver#mapMethodName(String, String, String, String)
+		 */
+		String mapMethodName(String owner, String name, String descriptor);
+
+		/**
+		 * @see MappingResolver#mapClassNames(String, String[])
+		 */
+		default String[] mapClassNames(String[] classNames) {
+			String[] ret = new String[classNames.length];
+
+			for (int i = 0; i < classNames.length; i++) {
+				ret[i] = mapClassName(classNames[i]);
+			}
+
+			return ret;
+		}
+
+		/**
+		 * @see MappingResolver#mapClassNames(String, Stream)
+		 */
+		default Stream<String> mapClassNames(Stream<String> classNames) {
+			return classNames.map(this::mapClassName);
+		}
+
+		/**
+		 * @see MappingResolver#mapFieldNames(String, String[], String[], String[])
+		 */
+		default String[] mapFieldNames(String[] owners, String[] names, String[] descriptors) {
+			if (owners.length != names.length || names.length != descriptors.length) {
+				throw new IllegalArgumentException("Mismatched member array lengths: " + owners.length + " owners, " + names.length + " names, " + descriptors.length + " descriptors");
+			}
+
+			String[] ret = new String[names.length];
+
+			for (int i = 0; i < names.length; i++) {
+				ret[i] = mapFieldName(owners[i], names[i], descriptors[i]);
+			}
+
+			return ret;
+		}
+
+		/**
+		 * @see MappingResolver#mapMethodNames(String, String[], String[], String[])
+		 */
+		default String[] mapMethodNames(String[] owners, String[] names, String[] descriptors) {
+			if (owners.length != names.length || names.length != descriptors.length) {
+				throw new IllegalArgumentException("Mismatched member array lengths: " + owners.length + " owners, " + names.length + " names, " + descriptors.length + " descriptors");
+			}
+
+			String[] ret = new String[names.length];
+
+			for (int i = 0; i < names.length; i++) {
+				ret[i] = mapMethodName(owners[i], names[i], descriptors[i]);
+			}
+
+			return ret;
+		}
+	}
 }
@@ -18,7 +18,14 @@ package net.fabricmc.loader.api;
 
 import net.fabricmc.loader.api.metadata.ModMetadata;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface ModContainer {
 	ModMetadata getMetadata();
@@ -41,4 +48,63 @@ public interface ModContainer {
 		Path root = getRootPath();
 		return root.resolve(file.replace("/", root.getFileSystem().getSeparator()));
 	}
+
+	/**
+	 * Get the files inside the mod whose path starts with a given prefix.
+	 *
+	 * <p>For JAR mods this is answered from an index of the archive's entries, which is
+	 * built once, instead of walking the JAR's file system.</p>
+	 *
+	 * @param prefix The path prefix from root, using "/" as a separator, e.g. "assets/modid/lang/".
+	 *               An empty prefix returns every file.
+	 * @return The paths of all matching files from root, using "/" as a separator, in lexicographic order.
+	 * @throws IOException If the mod's files could not be read.
+	 * @since 0.6.0
+	 */
+	default List<String> getEntries(String prefix) throws IOException {
+		Path root = getRootPath();
+		String separator = root.getFileSystem().getSeparator();
+		String relativePrefix = prefix.startsWith("/") ? prefix.substring(1) : prefix;
+		int dirEnd = relativePrefix.lastIndexOf('/');
+		Path dir = dirEnd < 0 ? root : getPath(relativePrefix.substring(0, dirEnd));
+
+		if (!Files.isDirectory(dir)) {
+			return Collections.emptyList();
+		}
+
+		try (Stream<Path> stream = Files.walk(dir)) {
+			return stream.filter(Files::isRegularFile)
+				.map((p) -> root.relativize(p).toString().replace(separator, "/"))
+				.filter((p) -> p.startsWith(relativePrefix))
+				.sorted()
+				.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Checks whether a file exists inside the mod.
+	 *
+	 * @param file The location from root, using "/" as a separator.
+	 * @return Whether the file exists and is not a directory.
+	 * @since 0.6.0
+	 */
+	default boolean hasEntry(String file) {
+		return Files.isRegularFile(getPath(file));
+	}
+
+	/**
+	 * Open a file inside the mod for reading.
+	 *
+	 * <p>For JAR mods the file is read straight from the archive, without going through
+	 * the JAR's file system.</p>
+	 *
+	 * @param file The location from root, using "/" as a separator.
+	 * @return A stream of the file's contents, which the caller must close.
+	 * @throws java.nio.file.NoSuchFileException If the file doesn't exist.
+	 * @throws IOException If the file could not be opened.
+	 * @since 0.6.0
+	 */
+	default InputStream openEntry(String file) throws IOException {
+		return Files.newInputStream(getPath(file));
+	}
 }
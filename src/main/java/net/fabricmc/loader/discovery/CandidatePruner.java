@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.discovery;
+
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.metadata.VersionRangeDependency;
+import net.fabricmc.loader.util.version.SemanticVersionImpl;
+import net.fabricmc.loader.util.version.VersionIntervalSet;
+
+import java.util.*;
+
+/**
+ * Simplifies a mod resolution problem before it is handed to the SAT solver.
+ *
+ * <p>Candidates that can never be part of a solution are removed: those with a hard dependency
+ * without any remaining matching candidate, other versions of a mod whose version is forced, and
+ * candidates broken by a forced candidate. A candidate is forced if it is the last remaining version
+ * of a mandatory mod, or the last remaining match of a forced candidate's dependency.</p>
+ *
+ * <p>None of this changes the set of solutions, it only shrinks the problem. If the propagation runs
+ * into a contradiction, the problem is left alone so the solver can report it as usual.</p>
+ */
+final class CandidatePruner {
+	private final Map<String, Collection<ModCandidate>> candidatesById;
+	private final Set<String> mandatoryMods;
+
+	private final Map<ModCandidate, List<Requirement>> requirements = new HashMap<>();
+	private final Map<ModCandidate, List<Requirement>> requiredBy = new HashMap<>();
+	private final Map<ModCandidate, List<ModCandidate>> breaks = new HashMap<>();
+	private final Map<String, Integer> liveCountById = new HashMap<>();
+	private final Map<String, VersionIntervalSet> semanticVersionsById = new HashMap<>();
+	private final Set<ModCandidate> live = new HashSet<>();
+	private final Set<ModCandidate> forced = new HashSet<>();
+	private final Deque<ModCandidate> removeQueue = new ArrayDeque<>();
+	private final Deque<ModCandidate> forceQueue = new ArrayDeque<>();
+	private boolean contradiction;
+
+	private CandidatePruner(Map<String, Collection<ModCandidate>> candidatesById, Set<String> mandatoryMods) {
+		this.candidatesById = candidatesById;
+		this.mandatoryMods = mandatoryMods;
+	}
+
+	/**
+	 * @return The simplified problem, or null if propagation ran into a contradiction.
+	 */
+	static Result prune(Map<String, Collection<ModCandidate>> candidatesById, Set<String> mandatoryMods) {
+		CandidatePruner pruner = new CandidatePruner(candidatesById, mandatoryMods);
+		pruner.index();
+		pruner.propagate();
+
+		return pruner.contradiction ? null : pruner.toResult();
+	}
+
+	private void index() {
+		for (Map.Entry<String, Collection<ModCandidate>> entry : candidatesById.entrySet()) {
+			live.addAll(entry.getValue());
+			liveCountById.put(entry.getKey(), entry.getValue().size());
+		}
+
+		for (Collection<ModCandidate> candidates : candidatesById.values()) {
+			for (ModCandidate candidate : candidates) {
+				List<Requirement> candidateRequirements = new ArrayList<>();
+
+				for (ModDependency dep : candidate.getInfo().getDepends()) {
+					Requirement requirement = new Requirement(candidate, getMatching(dep));
+					candidateRequirements.add(requirement);
+
+					for (ModCandidate match : requirement.matches) {
+						requiredBy.computeIfAbsent(match, (c) -> new ArrayList<>()).add(requirement);
+					}
+
+					if (requirement.matches.isEmpty()) {
+						removeQueue.add(candidate);
+					}
+				}
+
+				requirements.put(candidate, candidateRequirements);
+
+				List<ModCandidate> broken = new ArrayList<>();
+
+				for (ModDependency dep : candidate.getInfo().getBreaks()) {
+					broken.addAll(getMatching(dep));
+				}
+
+				breaks.put(candidate, broken);
+			}
+		}
+
+		for (String id : mandatoryMods) {
+			Collection<ModCandidate> candidates = candidatesById.get(id);
+
+			if (candidates != null && candidates.size() == 1) {
+				forceQueue.add(candidates.iterator().next());
+			}
+		}
+	}
+
+	private List<ModCandidate> getMatching(ModDependency dep) {
+		List<ModCandidate> ret = new ArrayList<>();
+		Collection<ModCandidate> candidates = candidatesById.getOrDefault(dep.getModId(), Collections.emptyList());
+		VersionIntervalSet accepted = dep instanceof VersionRangeDependency ? ((VersionRangeDependency) dep).getVersionIntervals() : null;
+		// a range missing every available version rules out all semantic candidates at once
+		boolean anyAccepted = accepted == null || accepted.intersects(getSemanticVersions(dep.getModId(), candidates));
+
+		for (ModCandidate candidate : candidates) {
+			Version version = candidate.getInfo().getVersion();
+
+			if (accepted != null && isSemantic(version)) {
+				if (anyAccepted && accepted.contains((SemanticVersionImpl) version)) {
+					ret.add(candidate);
+				}
+			} else if (dep.matches(version)) {
+				ret.add(candidate);
+			}
+		}
+
+		return ret;
+	}
+
+	private static boolean isSemantic(Version version) {
+		return version instanceof SemanticVersionImpl && !((SemanticVersionImpl) version).hasWildcard();
+	}
+
+	private VersionIntervalSet getSemanticVersions(String id, Collection<ModCandidate> candidates) {
+		VersionIntervalSet ret = semanticVersionsById.get(id);
+
+		if (ret == null) {
+			ret = VersionIntervalSet.EMPTY;
+
+			for (ModCandidate candidate : candidates) {
+				Version version = candidate.getInfo().getVersion();
+
+				if (isSemantic(version)) {
+					SemanticVersionImpl semanticVersion = (SemanticVersionImpl) version;
+					ret = ret.union(VersionIntervalSet.of(semanticVersion, true, semanticVersion, true));
+				}
+			}
+
+			semanticVersionsById.put(id, ret);
+		}
+
+		return ret;
+	}
+
+	private void propagate() {
+		while (!contradiction && (!removeQueue.isEmpty() || !forceQueue.isEmpty())) {
+			// removals first, so forcing always sees up to date counts
+			if (!removeQueue.isEmpty()) {
+				remove(removeQueue.remove());
+			} else {
+				force(forceQueue.remove());
+			}
+		}
+	}
+
+	private void remove(ModCandidate candidate) {
+		if (!live.remove(candidate)) {
+			return;
+		}
+
+		if (forced.contains(candidate)) {
+			contradiction = true;
+			return;
+		}
+
+		String id = candidate.getInfo().getId();
+		int remaining = liveCountById.merge(id, -1, Integer::sum);
+
+		if (mandatoryMods.contains(id)) {
+			if (remaining == 0) {
+				contradiction = true;
+				return;
+			} else if (remaining == 1) {
+				forceQueue.add(getOnlyLive(candidatesById.get(id)));
+			}
+		}
+
+		for (Requirement requirement : requiredBy.getOrDefault(candidate, Collections.emptyList())) {
+			requirement.liveMatches--;
+
+			if (requirement.liveMatches == 0) {
+				removeQueue.add(requirement.owner);
+			} else if (requirement.liveMatches == 1 && forced.contains(requirement.owner)) {
+				forceQueue.add(getOnlyLive(requirement.matches));
+			}
+		}
+	}
+
+	private void force(ModCandidate candidate) {
+		if (!live.contains(candidate)) {
+			contradiction = true;
+			return;
+		}
+
+		if (!forced.add(candidate)) {
+			return;
+		}
+
+		for (ModCandidate other : candidatesById.get(candidate.getInfo().getId())) {
+			if (other != candidate) {
+				removeQueue.add(other);
+			}
+		}
+
+		removeQueue.addAll(breaks.get(candidate));
+
+		for (Requirement requirement : requirements.get(candidate)) {
+			if (requirement.liveMatches == 1) {
+				forceQueue.add(getOnlyLive(requirement.matches));
+			}
+		}
+	}
+
+	private ModCandidate getOnlyLive(Collection<ModCandidate> candidates) {
+		for (ModCandidate candidate : candidates) {
+			if (live.contains(candidate)) {
+				return candidate;
+			}
+		}
+
+		throw new IllegalStateException("no live candidate left");
+	}
+
+	private Result toResult() {
+		// keep the ID order, the solver tries mods in this order
+		Map<String, Collection<ModCandidate>> remaining = new LinkedHashMap<>();
+		int candidateCount = 0;
+
+		for (Map.Entry<String, Collection<ModCandidate>> entry : candidatesById.entrySet()) {
+			List<ModCandidate> candidates = new ArrayList<>();
+
+			for (ModCandidate candidate : entry.getValue()) {
+				candidateCount++;
+
+				if (live.contains(candidate)) {
+					candidates.add(candidate);
+				}
+			}
+
+			if (!candidates.isEmpty()) {
+				remaining.put(entry.getKey(), candidates);
+			}
+		}
+
+		return new Result(remaining, candidateCount - live.size(), forced.size());
+	}
+
+	private static final class Requirement {
+		final ModCandidate owner;
+		final List<ModCandidate> matches;
+		int liveMatches;
+
+		Requirement(ModCandidate owner, List<ModCandidate> matches) {
+			this.owner = owner;
+			this.matches = matches;
+			this.liveMatches = matches.size();
+		}
+	}
+
+	static final class Result {
+		final Map<String, Collection<ModCandidate>> candidatesById;
+		final int removedCount;
+		final int forcedCount;
+
+		private Result(Map<String, Collection<ModCandidate>> candidatesById, int removedCount, int forcedCount) {
+			this.candidatesById = candidatesById;
+			this.removedCount = removedCount;
+			this.forcedCount = forcedCount;
+		}
+	}
+}
@@ -22,12 +22,19 @@ import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.api.metadata.ModMetadata;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
+/**
+ * The candidates found for a single mod ID, keeping the shallowest candidate of each version.
+ *
+ * <p>Candidates are added concurrently by the discovery tasks, so additions are atomic per version
+ * without locking the whole set.</p>
+ */
 public class ModCandidateSet {
 	private final String modId;
-	private final Set<ModCandidate> depthZeroCandidates = new HashSet<>();
-	private final Map<String, ModCandidate> candidates = new HashMap<>();
+	private final ConcurrentMap<String, ModCandidate> candidates = new ConcurrentHashMap<>();
 
 	private static int compare(ModCandidate a, ModCandidate b) {
 		Version av = a.getInfo().getVersion();
@@ -49,36 +56,54 @@ public class ModCandidateSet {
 		return modId;
 	}
 
+	/**
+	 * Add a candidate, unless a candidate of the same version at the same or a lower depth is already present.
+	 *
+	 * @return Whether the candidate was added.
+	 */
 	public boolean add(ModCandidate candidate) {
 		String version = candidate.getInfo().getVersion().getFriendlyString();
-		ModCandidate oldCandidate = candidates.get(version);
-		if (oldCandidate != null) {
-			int oldDepth = oldCandidate.getDepth();
-			int newDepth = candidate.getDepth();
+		boolean[] added = new boolean[1];
 
-			if (oldDepth <= newDepth) {
-				return false;
+		// decided atomically by identity, replace() would compare with ModCandidate.equals, which ignores the depth
+		candidates.compute(version, (k, oldCandidate) -> {
+			if (oldCandidate == null || oldCandidate.getDepth() > candidate.getDepth()) {
+				added[0] = true;
+				return candidate;
 			} else {
-				candidates.remove(version);
-				if (oldDepth > 0) {
-					depthZeroCandidates.remove(oldCandidate);
-				}
+				return oldCandidate;
 			}
-		}
+		});
 
-		candidates.put(version, candidate);
-		if (candidate.getDepth() == 0) {
-			depthZeroCandidates.add(candidate);
+		return added[0];
+	}
+
+	public boolean isUserProvided() {
+		for (ModCandidate candidate : candidates.values()) {
+			if (candidate.getDepth() == 0) {
+				return true;
+			}
 		}
 
-		return true;
+		return false;
 	}
 
-	public boolean isUserProvided() {
-		return !depthZeroCandidates.isEmpty();
+	/**
+	 * @return A snapshot of the candidates currently in this set.
+	 */
+	public Collection<ModCandidate> getCandidates() {
+		return Collections.unmodifiableCollection(new ArrayList<>(candidates.values()));
 	}
 
 	public Collection<ModCandidate> toSortedSet() throws ModResolutionException {
+		Set<ModCandidate> depthZeroCandidates = new HashSet<>();
+
+		for (ModCandidate candidate : candidates.values()) {
+			if (candidate.getDepth() == 0) {
+				depthZeroCandidates.add(candidate);
+			}
+		}
+
 		if (depthZeroCandidates.size() > 1) {
 			Set<String> modVersionStrings = depthZeroCandidates.stream()
 				.map((c) -> "[" + c.getInfo().getVersion() + " at " + c.getOriginUrl().getFile() + "]")
@@ -31,6 +31,7 @@ import net.fabricmc.loader.metadata.LoaderModMetadata;
 import net.fabricmc.loader.metadata.ModMetadataParser;
 import net.fabricmc.loader.metadata.NestedJarEntry;
 import net.fabricmc.loader.util.FileSystemUtil;
+import net.fabricmc.loader.util.StartupProfiler;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
 import net.fabricmc.loader.util.sat4j.core.VecInt;
@@ -51,6 +52,8 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -70,8 +73,25 @@ public class ModResolver {
 			.build()
 	);
 	private static final Map<URL, List<Path>> inMemoryCache = new ConcurrentHashMap<>();
+	// JAR file systems opened during discovery, keyed by normalized URL string
+	private static final Map<String, Path> openedJars = new ConcurrentHashMap<>();
 	private static final Pattern MOD_ID_PATTERN = Pattern.compile("[a-z][a-z0-9-_]{1,63}");
 	private static final Object launcherSyncObject = new Object();
+	/**
+	 * Number of differently configured solvers to race against each other, capped by the number of cores.
+	 */
+	private static final int PORTFOLIO_SIZE = Integer.getInteger("fabric.loader.resolverPortfolio", 1);
+	/**
+	 * Wall-clock time limit for solving, in seconds. It covers all satisfiability checks together and, with
+	 * a portfolio, all solvers racing at once. Zero keeps the solver's default limit for each check.
+	 */
+	private static final int SOLVER_TIMEOUT = Integer.getInteger("fabric.loader.resolverTimeout", 0);
+	private static final List<Supplier<ISolver>> PORTFOLIO = Arrays.asList(
+		SolverFactory::newLight,
+		SolverFactory::newGlucose21,
+		SolverFactory::newDefault,
+		SolverFactory::newBestWL
+	);
 
 	private final List<ModCandidateFinder> candidateFinders = new ArrayList<>();
 
@@ -100,6 +120,231 @@ public class ModResolver {
 		}
 	}
 
+	private static String explainFailure(Map<String, Collection<ModCandidate>> candidatesById, Set<String> mandatoryMods, long deadline) {
+		String explanation = ResolutionExplainer.explain(candidatesById, mandatoryMods, deadline);
+		return explanation != null ? explanation : "";
+	}
+
+	/**
+	 * Thrown by {@link #solve} if the constraints can't be satisfied. The explanation is only added
+	 * afterwards, so racing solvers don't each search for it.
+	 */
+	private static final class UnsatisfiableException extends ModResolutionException {
+		private UnsatisfiableException(String s) {
+			super(s);
+		}
+
+		private UnsatisfiableException(String s, Throwable t) {
+			super(s, t);
+		}
+	}
+
+	/**
+	 * Encode the problem into the given solver, then pick a version for each mod in turn.
+	 *
+	 * <p>Each mod ends up either fixed to one candidate by an assumption or proven impossible
+	 * under the previous assumptions, so the result only depends on the satisfiability answers,
+	 * not on which solver produced them.</p>
+	 */
+	private static Map<String, ModCandidate> solve(ISolver solver, Logger logger, Map<String, Collection<ModCandidate>> solverCandidateMap, Map<ModCandidate, Integer> candidateIntMap, List<ModCandidate> intCandidateMap, Set<String> mandatoryMods, long deadline) throws ModResolutionException, TimeoutException {
+		int clauseCount = 0;
+		solver.newVar(intCandidateMap.size());
+
+		// Each mod needs to have at most one version.
+		for (String id : solverCandidateMap.keySet()) {
+			IVecInt versionVec = toVecInt(solverCandidateMap.get(id).stream().mapToInt(candidateIntMap::get));
+
+			try {
+				if (mandatoryMods.contains(id)) {
+					solver.addExactly(versionVec, 1);
+				} else {
+					solver.addAtMost(versionVec, 1);
+				}
+			} catch (ContradictionException e) {
+				throw new UnsatisfiableException("Could not resolve valid mod collection (at: adding mod " + id + ")", e);
+			}
+		}
+
+		for (ModCandidate mod : candidateIntMap.keySet()) {
+			int modClauseId = candidateIntMap.get(mod);
+
+			// Each mod's requirements must be satisfied, if it is to be present.
+			// mod => ((a or b) AND (d or e))
+			// \> not mod OR ((a or b) AND (d or e))
+			// \> ((not mod OR a OR b) AND (not mod OR d OR e))
+
+			for (ModDependency dep : mod.getInfo().getDepends()) {
+				int[] matchingCandidates = solverCandidateMap.getOrDefault(dep.getModId(), Collections.emptyList())
+					.stream()
+					.filter((c) -> dep.matches(c.getInfo().getVersion()))
+					.mapToInt(candidateIntMap::get)
+					.toArray();
+
+				int[] clause = new int[matchingCandidates.length + 1];
+				System.arraycopy(matchingCandidates, 0, clause, 0, matchingCandidates.length);
+				clause[matchingCandidates.length] = -modClauseId;
+
+				try {
+					solver.addClause(new VecInt(clause));
+					clauseCount++;
+				} catch (ContradictionException e) {
+					throw new UnsatisfiableException("Could not resolve valid mod collection (at: " + mod.getInfo().getId() + " requires " + dep + ")", e);
+				}
+			}
+
+			// Each mod's breaks must be NOT satisfied, if it is to be present.
+			// mod => (not a AND not b AND not d AND not e))
+			// \> not mod OR (not a AND not b AND not d AND not e)
+			// \> (not mod OR not a) AND (not mod OR not b) ...
+
+			for (ModDependency dep : mod.getInfo().getBreaks()) {
+				int[] matchingCandidates = solverCandidateMap.getOrDefault(dep.getModId(), Collections.emptyList())
+					.stream()
+					.filter((c) -> dep.matches(c.getInfo().getVersion()))
+					.mapToInt(candidateIntMap::get)
+					.toArray();
+
+				try {
+					for (int m : matchingCandidates) {
+						solver.addClause(new VecInt(new int[] { -modClauseId, -m }));
+						clauseCount++;
+					}
+				} catch (ContradictionException e) {
+					throw new UnsatisfiableException("Could not resolve valid mod collection (at: " + mod.getInfo().getId() + " breaks " + dep + ")", e);
+				}
+			}
+		}
+
+		logger.debug("Mod resolution: solving for " + (intCandidateMap.size() - 1) + " candidates with " + clauseCount + " dependency clauses");
+
+		//noinspection UnnecessaryLocalVariable
+		IProblem problem = solver;
+		IVecInt assumptions = new VecInt(solverCandidateMap.size());
+
+		for (String mod : solverCandidateMap.keySet()) {
+			int pos = assumptions.size();
+			assumptions = assumptions.push(0);
+			Collection<ModCandidate> candidates = solverCandidateMap.get(mod);
+			boolean satisfied = false;
+
+			for (ModCandidate candidate : candidates) {
+				assumptions.set(pos, candidateIntMap.get(candidate));
+				if (isSatisfiable(solver, assumptions, deadline)) {
+					satisfied = true;
+					break;
+				}
+			}
+
+			if (!satisfied) {
+				if (mandatoryMods.contains(mod)) {
+					throw new UnsatisfiableException("Could not resolve mod collection including mandatory mod '" + mod + "'");
+				} else {
+					assumptions = assumptions.pop();
+				}
+			}
+		}
+
+		// the last check may have failed for an optional mod, so recompute the model for the accepted assumptions
+		if (!isSatisfiable(solver, assumptions, deadline)) {
+			throw new UnsatisfiableException("Could not resolve valid mod collection");
+		}
+
+		int[] model = problem.model();
+		Map<String, ModCandidate> result = new HashMap<>();
+
+		for (int i : model) {
+			if (i <= 0) {
+				continue;
+			}
+
+			ModCandidate candidate = intCandidateMap.get(i);
+			if (result.containsKey(candidate.getInfo().getId())) {
+				throw new ModResolutionException("Duplicate ID '" + candidate.getInfo().getId() + "' after solving - wrong constraints?");
+			} else {
+				result.put(candidate.getInfo().getId(), candidate);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Run one satisfiability check, limited to the time left until the deadline.
+	 */
+	private static boolean isSatisfiable(ISolver solver, IVecInt assumptions, long deadline) throws TimeoutException {
+		if (deadline != Long.MAX_VALUE) {
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+			if (remaining <= 0) {
+				throw new TimeoutException("Timeout (" + SOLVER_TIMEOUT + "s) exceeded");
+			}
+
+			solver.setTimeoutMs(remaining);
+		}
+
+		return solver.isSatisfiable(assumptions);
+	}
+
+	/**
+	 * Race several differently configured solvers on the same problem, and use the first answer.
+	 */
+	private static Map<String, ModCandidate> solvePortfolio(int size, Logger logger, Map<String, Collection<ModCandidate>> solverCandidateMap, Map<ModCandidate, Integer> candidateIntMap, List<ModCandidate> intCandidateMap, Set<String> mandatoryMods, long deadline) throws ModResolutionException, TimeoutException {
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(size, (runnable) -> {
+			Thread thread = new Thread(runnable, "Fabric Mod Resolver #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		CompletionService<Map<String, ModCandidate>> completionService = new ExecutorCompletionService<>(executor);
+		List<ISolver> solvers = new ArrayList<>(size);
+
+		try {
+			for (int i = 0; i < size; i++) {
+				ISolver solver = PORTFOLIO.get(i).get();
+				solvers.add(solver);
+				completionService.submit(() -> solve(solver, logger, solverCandidateMap, candidateIntMap, intCandidateMap, mandatoryMods, deadline));
+			}
+
+			Throwable lastFailure = null;
+
+			for (int i = 0; i < size; i++) {
+				Future<Map<String, ModCandidate>> future = deadline == Long.MAX_VALUE
+					? completionService.take()
+					: completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+				if (future == null) {
+					break;
+				}
+
+				try {
+					return future.get();
+				} catch (ExecutionException e) {
+					// a failed resolution is as definite an answer as a successful one, only timeouts and crashes defer to the other solvers
+					if (e.getCause() instanceof ModResolutionException) {
+						throw (ModResolutionException) e.getCause();
+					}
+
+					lastFailure = e.getCause();
+				}
+			}
+
+			if (lastFailure != null && !(lastFailure instanceof TimeoutException)) {
+				throw new ModResolutionException("Mod resolution failed", lastFailure);
+			}
+
+			throw new TimeoutException("No solver finished in time");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ModResolutionException("Interrupted while resolving mods", e);
+		} finally {
+			for (ISolver solver : solvers) {
+				solver.expireTimeout();
+			}
+
+			executor.shutdownNow();
+		}
+	}
+
 	// TODO: Find a way to sort versions of mods by suggestions and conflicts (not crucial, though)
 	public Map<String, ModCandidate> findCompatibleSet(Logger logger, Map<String, ModCandidateSet> modCandidateSetMap) throws ModResolutionException {
 		// First, map all ModCandidateSets to Set<ModCandidate>s.
@@ -128,128 +373,42 @@ public class ModResolver {
 			// Inspired by http://0install.net/solver.html
 			// probably also horrendously slow, for now
 
+			// Drop candidates that can't be part of any solution before building the SAT problem.
+			Map<String, Collection<ModCandidate>> solverCandidateMap = modCandidateMap;
+			CandidatePruner.Result pruned = CandidatePruner.prune(modCandidateMap, mandatoryMods);
+			int candidateCount = modCandidateMap.values().stream().mapToInt(Collection::size).sum();
+
+			if (pruned != null) {
+				solverCandidateMap = pruned.candidatesById;
+				logger.debug("Mod resolution: removed " + pruned.removedCount + " of " + candidateCount + " candidates (" + pruned.forcedCount + " forced) before solving");
+			}
+
 			// Map all the ModCandidates to DIMACS-format positive integers.
 			int varCount = 1;
 			Map<ModCandidate, Integer> candidateIntMap = new HashMap<>();
-			List<ModCandidate> intCandidateMap = new ArrayList<>(modCandidateMap.size() * 2);
+			List<ModCandidate> intCandidateMap = new ArrayList<>(candidateCount + 1);
 			intCandidateMap.add(null);
-			for (Collection<ModCandidate> m : modCandidateMap.values()) {
+			for (Collection<ModCandidate> m : solverCandidateMap.values()) {
 				for (ModCandidate candidate : m) {
 					candidateIntMap.put(candidate, varCount++);
 					intCandidateMap.add(candidate);
 				}
 			}
 
-			ISolver solver = SolverFactory.newLight();
-			solver.newVar(varCount);
+			// a single deadline, so the limit means the same with one solver as with a portfolio
+			long deadline = SOLVER_TIMEOUT > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(SOLVER_TIMEOUT) : Long.MAX_VALUE;
 
 			try {
-				// Each mod needs to have at most one version.
-				for (String id : modCandidateMap.keySet()) {
-					IVecInt versionVec = toVecInt(modCandidateMap.get(id).stream().mapToInt(candidateIntMap::get));
-
-					try {
-						if (mandatoryMods.contains(id)) {
-							solver.addExactly(versionVec, 1);
-						} else {
-							solver.addAtMost(versionVec, 1);
-						}
-					} catch (ContradictionException e) {
-						throw new ModResolutionException("Could not resolve valid mod collection (at: adding mod " + id + ")", e);
-					}
-				}
-
-				for (ModCandidate mod : candidateIntMap.keySet()) {
-					int modClauseId = candidateIntMap.get(mod);
-
-					// Each mod's requirements must be satisfied, if it is to be present.
-					// mod => ((a or b) AND (d or e))
-					// \> not mod OR ((a or b) AND (d or e))
-					// \> ((not mod OR a OR b) AND (not mod OR d OR e))
-
-					for (ModDependency dep : mod.getInfo().getDepends()) {
-						int[] matchingCandidates = modCandidateMap.getOrDefault(dep.getModId(), Collections.emptyList())
-							.stream()
-							.filter((c) -> dep.matches(c.getInfo().getVersion()))
-							.mapToInt(candidateIntMap::get)
-							.toArray();
-
-						int[] clause = new int[matchingCandidates.length + 1];
-						System.arraycopy(matchingCandidates, 0, clause, 0, matchingCandidates.length);
-						clause[matchingCandidates.length] = -modClauseId;
-
-						try {
-							solver.addClause(new VecInt(clause));
-						} catch (ContradictionException e) {
-							throw new ModResolutionException("Could not resolve valid mod collection (at: " + mod.getInfo().getId() + " requires " + dep + ")", e);
-						}
-					}
-
-					// Each mod's breaks must be NOT satisfied, if it is to be present.
-					// mod => (not a AND not b AND not d AND not e))
-					// \> not mod OR (not a AND not b AND not d AND not e)
-					// \> (not mod OR not a) AND (not mod OR not b) ...
-
-					for (ModDependency dep : mod.getInfo().getBreaks()) {
-						int[] matchingCandidates = modCandidateMap.getOrDefault(dep.getModId(), Collections.emptyList())
-							.stream()
-							.filter((c) -> dep.matches(c.getInfo().getVersion()))
-							.mapToInt(candidateIntMap::get)
-							.toArray();
-
-						try {
-							for (int m : matchingCandidates) {
-								solver.addClause(new VecInt(new int[] { -modClauseId, -m }));
-							}
-						} catch (ContradictionException e) {
-							throw new ModResolutionException("Could not resolve valid mod collection (at: " + mod.getInfo().getId() + " breaks " + dep + ")", e);
-						}
-					}
-				}
-
-				//noinspection UnnecessaryLocalVariable
-				IProblem problem = solver;
-				IVecInt assumptions = new VecInt(modCandidateMap.size());
-
-				for (String mod : modCandidateMap.keySet()) {
-					int pos = assumptions.size();
-					assumptions = assumptions.push(0);
-					Collection<ModCandidate> candidates = modCandidateMap.get(mod);
-					boolean satisfied = false;
-
-					for (ModCandidate candidate : candidates) {
-						assumptions.set(pos, candidateIntMap.get(candidate));
-						if (problem.isSatisfiable(assumptions)) {
-							satisfied = true;
-							break;
-						}
-					}
-
-					if (!satisfied) {
-						if (mandatoryMods.contains(mod)) {
-							throw new ModResolutionException("Could not resolve mod collection including mandatory mod '" + mod + "'");
-						} else {
-							assumptions = assumptions.pop();
-						}
-					}
-				}
+				int portfolioSize = Math.min(Math.min(PORTFOLIO_SIZE, PORTFOLIO.size()), Runtime.getRuntime().availableProcessors());
 
-				// assume satisfied
-				int[] model = problem.model();
-				result = new HashMap<>();
-
-				for (int i : model) {
-					if (i <= 0) {
-						continue;
-					}
-
-					ModCandidate candidate = intCandidateMap.get(i);
-					if (result.containsKey(candidate.getInfo().getId())) {
-						throw new ModResolutionException("Duplicate ID '" + candidate.getInfo().getId() + "' after solving - wrong constraints?");
-					} else {
-						result.put(candidate.getInfo().getId(), candidate);
-					}
+				if (portfolioSize > 1) {
+					result = solvePortfolio(portfolioSize, logger, solverCandidateMap, candidateIntMap, intCandidateMap, mandatoryMods, deadline);
+				} else {
+					result = solve(SolverFactory.newLight(), logger, solverCandidateMap, candidateIntMap, intCandidateMap, mandatoryMods, deadline);
 				}
+			} catch (UnsatisfiableException e) {
+				// explained once here, within what is left of the deadline
+				throw new ModResolutionException(e.getMessage() + explainFailure(modCandidateMap, mandatoryMods, deadline), e.getCause());
 			} catch (TimeoutException e) {
 				throw new ModResolutionException("Mod collection took too long to be resolved", e);
 			}
@@ -370,6 +529,7 @@ public class ModResolver {
 				// JAR file
 				try {
 					jarFs = FileSystemUtil.getJarFileSystem(path, false);
+					openedJars.put(normalizedUrl.toString(), path);
 					modJson = jarFs.get().getPath("fabric.mod.json");
 					rootDir = jarFs.get().getRootDirectories().iterator().next();
 				} catch (IOException e) {
@@ -455,57 +615,64 @@ public class ModResolver {
 		}
 	}
 
+	@SuppressWarnings("try")
 	public Map<String, ModCandidate> resolve(FabricLoader loader) throws ModResolutionException {
 		ConcurrentMap<String, ModCandidateSet> candidatesById = new ConcurrentHashMap<>();
 
 		long time1 = System.currentTimeMillis();
+		// closed even when discovery fails
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("discovery")) {
+			Queue<UrlProcessAction> allActions = new ConcurrentLinkedQueue<>();
+			ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+			for (ModCandidateFinder f : candidateFinders) {
+				f.findCandidates(loader, (u) -> {
+					UrlProcessAction action = new UrlProcessAction(loader, candidatesById, u, 0);
+					allActions.add(action);
+					pool.execute(action);
+				});
+			}
 
-		Queue<UrlProcessAction> allActions = new ConcurrentLinkedQueue<>();
-		ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
-		for (ModCandidateFinder f : candidateFinders) {
-			f.findCandidates(loader, (u) -> {
-				UrlProcessAction action = new UrlProcessAction(loader, candidatesById, u, 0);
-				allActions.add(action);
-				pool.execute(action);
-			});
-		}
-
-		// add builtin mods
-		for (BuiltinMod mod : loader.getGameProvider().getBuiltinMods()) {
-			candidatesById.computeIfAbsent(mod.metadata.getId(), ModCandidateSet::new).add(new ModCandidate(new BuiltinMetadataWrapper(mod.metadata), mod.url, 0));
-		}
+			// add builtin mods
+			for (BuiltinMod mod : loader.getGameProvider().getBuiltinMods()) {
+				candidatesById.computeIfAbsent(mod.metadata.getId(), ModCandidateSet::new).add(new ModCandidate(new BuiltinMetadataWrapper(mod.metadata), mod.url, 0));
+			}
 
-		boolean tookTooLong = false;
-		Throwable exception = null;
-		try {
-			pool.shutdown();
-			pool.awaitTermination(30, TimeUnit.SECONDS);
-			for (UrlProcessAction action : allActions) {
-				if (!action.isDone()) {
-					tookTooLong = true;
-				} else {
-					Throwable t = action.getException();
-					if (t != null) {
-						if (exception == null) {
-							exception = t;
-						} else {
-							exception.addSuppressed(t);
+			boolean tookTooLong = false;
+			Throwable exception = null;
+			try {
+				pool.shutdown();
+				pool.awaitTermination(30, TimeUnit.SECONDS);
+				for (UrlProcessAction action : allActions) {
+					if (!action.isDone()) {
+						tookTooLong = true;
+					} else {
+						Throwable t = action.getException();
+						if (t != null) {
+							if (exception == null) {
+								exception = t;
+							} else {
+								exception.addSuppressed(t);
+							}
 						}
 					}
 				}
+			} catch (InterruptedException e) {
+				throw new RuntimeException("Mod resolution took too long!", e);
+			}
+			if (tookTooLong) {
+				throw new RuntimeException("Mod resolution took too long!");
+			}
+			if (exception != null) {
+				throw new RuntimeException("Mod resolution failed!", exception);
 			}
-		} catch (InterruptedException e) {
-			throw new RuntimeException("Mod resolution took too long!", e);
-		}
-		if (tookTooLong) {
-			throw new RuntimeException("Mod resolution took too long!");
-		}
-		if (exception != null) {
-			throw new RuntimeException("Mod resolution failed!", exception);
 		}
 
 		long time2 = System.currentTimeMillis();
-		Map<String, ModCandidate> result = findCompatibleSet(loader.getLogger(), candidatesById);
+		Map<String, ModCandidate> result;
+
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("solve")) {
+			result = findCompatibleSet(loader.getLogger(), candidatesById);
+		}
 
 		long time3 = System.currentTimeMillis();
 		loader.getLogger().debug("Mod resolution detection time: " + (time2 - time1) + "ms");
@@ -521,4 +688,46 @@ public class ModResolver {
 
 		return result;
 	}
+
+	/**
+	 * Close the JAR file systems opened during discovery and delete the nested JARs that don't hold
+	 * a loaded mod. Must only be called once mod resolution is complete.
+	 *
+	 * @param usedUrls The origin URLs of the loaded mods.
+	 * @return The number of bytes freed from the in-memory nested JAR store.
+	 */
+	public static long releaseUnusedJars(Collection<URL> usedUrls) {
+		Set<String> used = new HashSet<>();
+
+		for (URL url : usedUrls) {
+			used.add(url.toString());
+		}
+
+		long freed = 0;
+
+		for (Map.Entry<String, Path> entry : openedJars.entrySet()) {
+			if (used.contains(entry.getKey())) {
+				continue;
+			}
+
+			Path path = entry.getValue();
+
+			try {
+				FileSystemUtil.FileSystemDelegate jarFs = FileSystemUtil.getJarFileSystem(path, false);
+				jarFs.get().close();
+
+				if (path.getFileSystem() == inMemoryFs) {
+					freed += Files.size(path);
+					Files.delete(path);
+				}
+			} catch (IOException e) {
+				FabricLoader.INSTANCE.getLogger().debug("Failed to release unused mod JAR " + path, e);
+			}
+		}
+
+		openedJars.clear();
+		inMemoryCache.clear();
+		return freed;
+	}
+
 }
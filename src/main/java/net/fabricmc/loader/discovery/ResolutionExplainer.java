@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.discovery;
+
+import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.util.sat4j.core.VecInt;
+import net.fabricmc.loader.util.sat4j.minisat.SolverFactory;
+import net.fabricmc.loader.util.sat4j.specs.ContradictionException;
+import net.fabricmc.loader.util.sat4j.specs.ISolver;
+import net.fabricmc.loader.util.sat4j.specs.IVecInt;
+import net.fabricmc.loader.util.sat4j.specs.TimeoutException;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Explains why a set of mod candidates cannot be resolved, by finding a minimal set of
+ * dependency, breaks and mandatory mod constraints that cannot be satisfied together.
+ *
+ * <p>Each constraint is guarded by a selector variable, so the solver can be asked about any
+ * subset of them through assumptions. The solver's own explanation gives a first core, which is
+ * then shrunk by deletion: every constraint whose removal keeps the problem unsatisfiable is
+ * dropped. The whole search is bounded by {@link #TIME_LIMIT_MS} and the given deadline; if it runs
+ * out, the core found so far is reported as is.</p>
+ */
+final class ResolutionExplainer {
+	private static final long TIME_LIMIT_MS = 2000;
+
+	private final Map<String, Collection<ModCandidate>> candidatesById;
+	private final Set<String> mandatoryMods;
+	private final ISolver solver = SolverFactory.newLight();
+	private final Map<ModCandidate, Integer> candidateVars = new HashMap<>();
+	private final List<String> constraintDescriptions = new ArrayList<>();
+	private final List<Integer> selectors = new ArrayList<>();
+
+	private ResolutionExplainer(Map<String, Collection<ModCandidate>> candidatesById, Set<String> mandatoryMods) {
+		this.candidatesById = candidatesById;
+		this.mandatoryMods = mandatoryMods;
+	}
+
+	/**
+	 * @param deadline The {@link System#nanoTime} to give up at, or {@link Long#MAX_VALUE} for none.
+	 * @return A human readable list of conflicting constraints, or null if no conflict could be
+	 * isolated, e.g. because the constraints are satisfiable on their own or there was no time left.
+	 */
+	static String explain(Map<String, Collection<ModCandidate>> candidatesById, Set<String> mandatoryMods, long deadline) {
+		long timeLimit = TIME_LIMIT_MS;
+
+		if (deadline != Long.MAX_VALUE) {
+			timeLimit = Math.min(timeLimit, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+
+			if (timeLimit <= 0) {
+				return null;
+			}
+		}
+
+		try {
+			return new ResolutionExplainer(candidatesById, mandatoryMods).explain(timeLimit);
+		} catch (ContradictionException | TimeoutException e) {
+			return null;
+		}
+	}
+
+	private String explain(long timeLimit) throws ContradictionException, TimeoutException {
+		long deadline = System.currentTimeMillis() + timeLimit;
+		build();
+
+		List<Integer> core = new ArrayList<>(selectors);
+		solver.setTimeoutMs(timeLimit);
+
+		if (solver.isSatisfiable(toVecInt(core))) {
+			return null;
+		}
+
+		IVecInt explanation = solver.unsatExplanation();
+
+		if (explanation != null) {
+			Set<Integer> explained = new HashSet<>();
+
+			for (int i = 0; i < explanation.size(); i++) {
+				explained.add(Math.abs(explanation.get(i)));
+			}
+
+			core.retainAll(explained);
+		}
+
+		boolean minimal = true;
+
+		for (int i = core.size() - 1; i >= 0; i--) {
+			long remaining = deadline - System.currentTimeMillis();
+
+			if (remaining <= 0) {
+				minimal = false;
+				break;
+			}
+
+			List<Integer> candidate = new ArrayList<>(core);
+			candidate.remove(i);
+			solver.setTimeoutMs(remaining);
+
+			try {
+				if (!solver.isSatisfiable(toVecInt(candidate))) {
+					core = candidate;
+				}
+			} catch (TimeoutException e) {
+				minimal = false;
+				break;
+			}
+		}
+
+		return describe(core, minimal);
+	}
+
+	private void build() throws ContradictionException {
+		int varCount = 0;
+
+		for (Collection<ModCandidate> candidates : candidatesById.values()) {
+			for (ModCandidate candidate : candidates) {
+				candidateVars.put(candidate, ++varCount);
+			}
+		}
+
+		solver.newVar(varCount);
+
+		for (Map.Entry<String, Collection<ModCandidate>> entry : candidatesById.entrySet()) {
+			int[] versions = entry.getValue().stream().mapToInt(candidateVars::get).toArray();
+
+			// at most one version of each mod is a fact, not something worth explaining
+			solver.addAtMost(new VecInt(versions), 1);
+
+			if (mandatoryMods.contains(entry.getKey())) {
+				addConstraint("Mod " + entry.getKey() + " is required", versions);
+			}
+		}
+
+		for (Collection<ModCandidate> candidates : candidatesById.values()) {
+			for (ModCandidate candidate : candidates) {
+				int var = candidateVars.get(candidate);
+				String name = getName(candidate);
+
+				for (ModDependency dep : candidate.getInfo().getDepends()) {
+					List<ModCandidate> matches = getMatching(dep);
+					int[] clause = new int[matches.size() + 1];
+					clause[0] = -var;
+
+					for (int i = 0; i < matches.size(); i++) {
+						clause[i + 1] = candidateVars.get(matches.get(i));
+					}
+
+					addConstraint(name + " depends on " + dep + describeMatches(dep, matches), clause);
+				}
+
+				for (ModDependency dep : candidate.getInfo().getBreaks()) {
+					List<ModCandidate> matches = getMatching(dep);
+
+					if (matches.isEmpty()) {
+						continue;
+					}
+
+					int selector = addSelector(name + " breaks " + dep + describeMatches(dep, matches));
+
+					for (ModCandidate match : matches) {
+						solver.addClause(new VecInt(new int[] { -selector, -var, -candidateVars.get(match) }));
+					}
+				}
+			}
+		}
+	}
+
+	private void addConstraint(String description, int[] clause) throws ContradictionException {
+		int selector = addSelector(description);
+		int[] guarded = Arrays.copyOf(clause, clause.length + 1);
+		guarded[clause.length] = -selector;
+		solver.addClause(new VecInt(guarded));
+	}
+
+	private int addSelector(String description) {
+		int selector = solver.nextFreeVarId(true);
+		selectors.add(selector);
+		constraintDescriptions.add(description);
+		return selector;
+	}
+
+	private List<ModCandidate> getMatching(ModDependency dep) {
+		return candidatesById.getOrDefault(dep.getModId(), Collections.emptyList()).stream()
+			.filter((c) -> dep.matches(c.getInfo().getVersion()))
+			.collect(Collectors.toList());
+	}
+
+	private String describeMatches(ModDependency dep, List<ModCandidate> matches) {
+		Collection<ModCandidate> available = candidatesById.get(dep.getModId());
+
+		if (available == null) {
+			return " (not present)";
+		} else if (matches.isEmpty()) {
+			return " (available: " + available.stream().map(ResolutionExplainer::getVersion).collect(Collectors.joining(", ")) + ")";
+		} else {
+			return " (matching: " + matches.stream().map(ResolutionExplainer::getVersion).collect(Collectors.joining(", ")) + ")";
+		}
+	}
+
+	private String describe(List<Integer> core, boolean minimal) {
+		StringBuilder builder = new StringBuilder(minimal ? "\nThe following constraints conflict:" : "\nThe following constraints conflict (search timed out, the list may not be minimal):");
+
+		for (int selector : core) {
+			builder.append("\n - ").append(constraintDescriptions.get(selectors.indexOf(selector)));
+		}
+
+		return builder.toString();
+	}
+
+	private static String getName(ModCandidate candidate) {
+		return candidate.getInfo().getId() + " " + getVersion(candidate);
+	}
+
+	private static String getVersion(ModCandidate candidate) {
+		return candidate.getInfo().getVersion().getFriendlyString();
+	}
+
+	private static IVecInt toVecInt(List<Integer> list) {
+		return new VecInt(list.stream().mapToInt(Integer::intValue).toArray());
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.entrypoint;
+
+import net.fabricmc.loader.game.GameProvider;
+import net.fabricmc.loader.launch.common.FabricLauncher;
+import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import net.fabricmc.loader.util.UrlConversionException;
+import net.fabricmc.loader.util.UrlUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Stores the classes patched by {@link EntrypointTransformer} in .fabric/entrypointCache in the game
+ * directory, so later launches of the same game can skip the patching.
+ *
+ * <p>The cache key covers the contents of the game JARs and the loader JAR, as listed in their central
+ * directories, the intermediary mappings the game classes are remapped with, plus everything else the
+ * patches depend on. Reading the central directory avoids inflating the JARs, while still catching any
+ * change to an entry's name, size or CRC.</p>
+ */
+final class EntrypointPatchCache {
+	static final class Contents {
+		final Map<String, byte[]> patchedClasses;
+		final String appletMainClass;
+
+		Contents(Map<String, byte[]> patchedClasses, String appletMainClass) {
+			this.patchedClasses = patchedClasses;
+			this.appletMainClass = appletMainClass;
+		}
+	}
+
+	private static final int MAGIC = 0x46455043;
+	private static final int FORMAT_VERSION = 1;
+	private static final String CACHE_FILE_SUFFIX = ".bin";
+	private static final String MAPPINGS_RESOURCE = "mappings/mappings.tiny";
+
+	private final Path directory;
+	private final String key;
+
+	private EntrypointPatchCache(Path directory, String key) {
+		this.directory = directory;
+		this.key = key;
+	}
+
+	/**
+	 * @return The cache for the current launch, or null if caching is disabled or the inputs can't be fingerprinted.
+	 */
+	static EntrypointPatchCache create(FabricLauncher launcher, GameProvider provider) throws IOException {
+		if (!Boolean.parseBoolean(System.getProperty("fabric.loader.entrypointCache", "true"))) {
+			return null;
+		}
+
+		Path loaderJar = getLoaderJar();
+
+		if (loaderJar == null) {
+			return null;
+		}
+
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+
+		update(digest, Integer.toString(FORMAT_VERSION));
+		update(digest, launcher.getClass().getName());
+		update(digest, launcher.getEnvironmentType().name());
+		update(digest, Boolean.toString(launcher.isDevelopment()));
+		update(digest, String.valueOf(launcher.getEntrypoint()));
+		update(digest, String.valueOf(launcher.getTargetNamespace()));
+
+		if (!updateJar(digest, loaderJar)) {
+			return null;
+		}
+
+		for (Path jar : provider.getGameContextJars()) {
+			if (!updateJar(digest, jar)) {
+				return null;
+			}
+		}
+
+		updateMappings(digest);
+
+		StringBuilder key = new StringBuilder();
+
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+
+		return new EntrypointPatchCache(provider.getLaunchDirectory().resolve(".fabric").resolve("entrypointCache"), key.toString());
+	}
+
+	private static Path getLoaderJar() {
+		CodeSource codeSource = EntrypointPatchCache.class.getProtectionDomain().getCodeSource();
+
+		if (codeSource == null || codeSource.getLocation() == null) {
+			return null;
+		}
+
+		try {
+			return UrlUtil.asPath(codeSource.getLocation());
+		} catch (UrlConversionException | FileSystemNotFoundException e) {
+			return null;
+		}
+	}
+
+	private static void update(MessageDigest digest, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		updateLong(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void updateLong(MessageDigest digest, long value) {
+		for (int i = 0; i < 8; i++) {
+			digest.update((byte) (value >>> (i * 8)));
+		}
+	}
+
+	/**
+	 * Add a JAR's central directory to the digest.
+	 *
+	 * @return False if the path is not a JAR, such as a class directory in a development environment.
+	 */
+	private static boolean updateJar(MessageDigest digest, Path path) throws IOException {
+		if (!Files.isRegularFile(path)) {
+			return false;
+		}
+
+		try (ZipFile zipFile = new ZipFile(path.toFile())) {
+			updateLong(digest, zipFile.size());
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				update(digest, entry.getName());
+				updateLong(digest, entry.getCrc());
+				updateLong(digest, entry.getSize());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Add the intermediary mappings to the digest, the same resource {@link net.fabricmc.loader.launch.common.MappingConfiguration} loads.
+	 */
+	private static void updateMappings(MessageDigest digest) throws IOException {
+		try (InputStream in = FabricLauncherBase.class.getClassLoader().getResourceAsStream(MAPPINGS_RESOURCE)) {
+			if (in == null) {
+				update(digest, "no mappings");
+				return;
+			}
+
+			update(digest, MAPPINGS_RESOURCE);
+			byte[] buffer = new byte[65536];
+			int len;
+
+			while ((len = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, len);
+			}
+		}
+	}
+
+	private Path getFile() {
+		return directory.resolve(key + CACHE_FILE_SUFFIX);
+	}
+
+	/**
+	 * @return The cached patch results, or null if there are none for the current inputs or the file is damaged.
+	 */
+	Contents read() {
+		Path file = getFile();
+
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			long size = Files.size(file);
+
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(key)) {
+				return null;
+			}
+
+			String appletMainClass = in.readBoolean() ? in.readUTF() : null;
+			int count = in.readInt();
+
+			// every entry takes at least 6 bytes, so larger counts and lengths can only come from a damaged file
+			if (count < 0 || count > size / 6) {
+				return null;
+			}
+
+			Map<String, byte[]> patchedClasses = new HashMap<>(count * 2);
+
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				int length = in.readInt();
+
+				if (length < 0 || length > size) {
+					return null;
+				}
+
+				byte[] data = new byte[length];
+				in.readFully(data);
+				patchedClasses.put(name, data);
+			}
+
+			return new Contents(patchedClasses, appletMainClass);
+		} catch (IOException | RuntimeException e) {
+			// truncated or otherwise damaged, patch again and overwrite it
+			return null;
+		}
+	}
+
+	/**
+	 * Store the patch results for the current inputs, replacing the results for any other inputs.
+	 */
+	void write(Contents contents) throws IOException {
+		Files.createDirectories(directory);
+		Path file = getFile();
+		// unique per writer, concurrent launches with the same inputs may be writing at the same time
+		Path tmpFile = Files.createTempFile(directory, key, ".tmp");
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(key);
+			out.writeBoolean(contents.appletMainClass != null);
+
+			if (contents.appletMainClass != null) {
+				out.writeUTF(contents.appletMainClass);
+			}
+
+			out.writeInt(contents.patchedClasses.size());
+
+			for (Map.Entry<String, byte[]> entry : contents.patchedClasses.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().length);
+				out.write(entry.getValue());
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tmpFile);
+			throw e;
+		}
+
+		Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+
+		// keep only the most recent results, the inputs rarely change back. Temporary files may belong to other launches.
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + CACHE_FILE_SUFFIX)) {
+			for (Path other : stream) {
+				if (!other.equals(file)) {
+					Files.deleteIfExists(other);
+				}
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package net.fabricmc.loader.entrypoint;
 
 import com.google.common.collect.ImmutableList;
+import net.fabricmc.loader.game.GameProvider;
 import net.fabricmc.loader.launch.common.FabricLauncher;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,13 +30,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class EntrypointTransformer {
 	public static String appletMainClass;
 
 	public final Logger logger = LogManager.getFormatterLogger("FabricLoader|EntrypointTransformer");
 	private final List<EntrypointPatch> patches;
-	private Map<String, byte[]> patchedClasses;
+	private volatile Map<String, byte[]> patchedClasses;
 	private boolean entrypointsLocated = false;
 
 	public EntrypointTransformer(Function<EntrypointTransformer, List<EntrypointPatch>> patches) {
@@ -66,15 +68,75 @@ public class EntrypointTransformer {
 	}
 
 	public void locateEntrypoints(FabricLauncher launcher) {
+		locateEntrypoints(launcher, null);
+	}
+
+	/**
+	 * Locate and patch the entrypoints, reusing the results of an earlier launch of the same game if possible.
+	 *
+	 * @param launcher The launcher.
+	 * @param provider The game provider, or null to always patch.
+	 */
+	public void locateEntrypoints(FabricLauncher launcher, GameProvider provider) {
 		if (entrypointsLocated) {
 			return;
 		}
 
 		entrypointsLocated = true;
+
+		EntrypointPatchCache cache = null;
+
+		if (provider != null) {
+			try {
+				cache = EntrypointPatchCache.create(launcher, provider);
+				EntrypointPatchCache.Contents contents = cache != null ? cache.read() : null;
+
+				if (contents != null) {
+					patchedClasses = contents.patchedClasses;
+					appletMainClass = contents.appletMainClass;
+					logger.debug("[EntrypointTransformer] Loaded " + (patchedClasses.size() == 1 ? "1 patched class" : (patchedClasses.size() + " patched classes")) + " from cache.");
+					return;
+				}
+			} catch (IOException e) {
+				logger.warn("[EntrypointTransformer] Failed to read entrypoint patch cache, patching again", e);
+			}
+		}
+
 		patchedClasses = new HashMap<>();
 
 		patches.forEach((e) -> e.process(launcher, this::addPatchedClass));
 		logger.debug("[EntrypointTransformer] Patched " + (patchedClasses.size() == 1 ? "1 class." : (patchedClasses.size() + " classes.")));
+
+		if (cache != null) {
+			try {
+				cache.write(new EntrypointPatchCache.Contents(patchedClasses, appletMainClass));
+			} catch (IOException e) {
+				logger.warn("[EntrypointTransformer] Failed to write entrypoint patch cache", e);
+			}
+		}
+	}
+
+	/**
+	 * Drop the patched classes which have been loaded already, their bytes are never requested again.
+	 *
+	 * @param isClassLoaded Whether a class has been loaded by the target class loader.
+	 * @return The number of bytes released.
+	 */
+	public long releaseLoadedClasses(Predicate<String> isClassLoaded) {
+		Map<String, byte[]> remaining = new HashMap<>();
+		long released = 0;
+
+		for (Map.Entry<String, byte[]> entry : patchedClasses.entrySet()) {
+			if (isClassLoaded.test(entry.getKey())) {
+				released += entry.getValue().length;
+			} else {
+				remaining.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		// transform() may run concurrently, so the map is replaced instead of modified
+		patchedClasses = remaining;
+		return released;
 	}
 
 	/**
@@ -19,17 +19,34 @@ package net.fabricmc.loader.entrypoint.minecraft.hooks;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.util.StartupProfiler;
 
 import java.io.File;
 
 public final class EntrypointClient {
+	@SuppressWarnings("try")
 	public static void start(File runDir, Object gameInstance) {
 		if (runDir == null) {
 			runDir = new File(".");
 		}
 
-		FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
-		EntrypointUtils.logErrors("main", FabricLoader.INSTANCE.getEntrypoints("main", ModInitializer.class), ModInitializer::onInitialize);
-		EntrypointUtils.logErrors("client", FabricLoader.INSTANCE.getEntrypoints("client", ClientModInitializer.class), ClientModInitializer::onInitializeClient);
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("instantiateMods")) {
+			FabricLoader.INSTANCE.instantiateMods(runDir, gameInstance);
+		}
+
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("entrypoint main")) {
+			EntrypointUtils.logErrors("main", ModInitializer.class, ModInitializer::onInitialize);
+		}
+
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("entrypoint client")) {
+			EntrypointUtils.logErrors("client", ClientModInitializer.class, ClientModInitializer::onInitializeClient);
+		}
+
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("release launch data")) {
+			FabricLoader.INSTANCE.releaseLaunchData();
+		}
+
+		EntrypointUtils.logSlowMods();
+		StartupProfiler.writeReport(FabricLoader.INSTANCE.getGameDirectory().toPath());
 	}
 }
@@ -17,23 +17,26 @@
 package net.fabricmc.loader.entrypoint.minecraft.hooks;
 
 import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.api.EntrypointTiming;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 final class EntrypointUtils {
+	private static final int SLOW_MOD_COUNT = 5;
+	private static final long SLOW_TOTAL_TIME = 1000L * 1000 * 1000;
+
 	private EntrypointUtils() {
 
 	}
 
-	static <T> void logErrors(String name, Collection<T> entrypoints, Consumer<T> entrypointConsumer) {
+	static <T> void logErrors(String name, Class<T> type, Consumer<T> entrypointConsumer) {
 		List<Throwable> errors = new ArrayList<>();
 
 		FabricLoader.INSTANCE.getLogger().debug("Iterating over entrypoint '" + name + "'");
 
-		entrypoints.forEach((e) -> {
+		FabricLoader.INSTANCE.invokeEntrypoints(name, type, (e) -> {
 			try {
 				entrypointConsumer.accept(e);
 			} catch (Throwable t) {
@@ -51,4 +54,32 @@ final class EntrypointUtils {
 			throw exception;
 		}
 	}
+
+	static void logSlowMods() {
+		Map<String, Long> timePerMod = new HashMap<>();
+		long totalTime = 0;
+
+		for (EntrypointTiming timing : FabricLoader.INSTANCE.getEntrypointTimings()) {
+			long time = timing.getInstantiationTime() + timing.getInvocationTime();
+			timePerMod.merge(timing.getProvider().getMetadata().getId(), time, Long::sum);
+			totalTime += time;
+		}
+
+		if (timePerMod.isEmpty()) {
+			return;
+		}
+
+		String slowest = timePerMod.entrySet().stream()
+			.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+			.limit(SLOW_MOD_COUNT)
+			.map((e) -> String.format("%s (%d ms)", e.getKey(), e.getValue() / 1000000))
+			.collect(Collectors.joining(", "));
+		String message = String.format("Mod entrypoints took %d ms, slowest: %s", totalTime / 1000000, slowest);
+
+		if (totalTime >= SLOW_TOTAL_TIME) {
+			FabricLoader.INSTANCE.getLogger().info(message);
+		} else {
+			FabricLoader.INSTANCE.getLogger().debug(message);
+		}
+	}
 }
@@ -28,6 +28,7 @@ import net.fabricmc.loader.metadata.BuiltinModMetadata;
 import net.fabricmc.loader.minecraft.McVersionLookup;
 import net.fabricmc.loader.minecraft.McVersionLookup.McVersion;
 import net.fabricmc.loader.util.Arguments;
+import net.fabricmc.loader.util.StartupProfiler;
 import java.io.File;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
@@ -127,6 +128,7 @@ public class MinecraftGameProvider implements GameProvider {
 	}
 
 	@Override
+	@SuppressWarnings("try")
 	public boolean locateGame(EnvType envType, ClassLoader loader) {
 		this.envType = envType;
 		List<String> entrypointClasses;
@@ -146,7 +148,10 @@ public class MinecraftGameProvider implements GameProvider {
 		gameJar = entrypointResult.get().entrypointPath;
 		realmsJar = GameProviderHelper.getSource(loader, "realmsVersion").orElse(null);
 		hasModLoader = GameProviderHelper.getSource(loader, "ModLoader.class").isPresent();
-		versionData = McVersionLookup.getVersion(gameJar);
+
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("McVersionLookup")) {
+			versionData = McVersionLookup.getVersion(gameJar);
+		}
 
 		return true;
 	}
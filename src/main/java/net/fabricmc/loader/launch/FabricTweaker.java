@@ -22,6 +22,7 @@ import net.fabricmc.loader.game.GameProvider;
 import net.fabricmc.loader.game.MinecraftGameProvider;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.launch.common.FabricMixinBootstrap;
+import net.fabricmc.loader.util.StartupProfiler;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
 import net.minecraft.launchwrapper.ITweaker;
@@ -74,6 +75,7 @@ public abstract class FabricTweaker extends FabricLauncherBase implements ITweak
 	}
 
 	@Override
+	@SuppressWarnings("try")
 	public void injectIntoClassLoader(LaunchClassLoader launchClassLoader) {
 		isDevelopment = Boolean.parseBoolean(System.getProperty("fabric.development", "false"));
 		Launch.blackboard.put("fabric.development", isDevelopment);
@@ -90,8 +92,10 @@ public abstract class FabricTweaker extends FabricLauncherBase implements ITweak
 		GameProvider provider = new MinecraftGameProvider();
 		provider.acceptArguments(arguments);
 
-		if (!provider.locateGame(getEnvironmentType(), launchClassLoader)) {
-			throw new RuntimeException("Could not locate Minecraft: provider locate failed");
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("game locate")) {
+			if (!provider.locateGame(getEnvironmentType(), launchClassLoader)) {
+				throw new RuntimeException("Could not locate Minecraft: provider locate failed");
+			}
 		}
 
 		FabricLoader.INSTANCE.setGameProvider(provider);
@@ -103,7 +107,7 @@ public abstract class FabricTweaker extends FabricLauncherBase implements ITweak
 		if (!isDevelopment) {
 			// Obfuscated environment
 			Launch.blackboard.put("fabric.development", false);
-			try {
+			try (StartupProfiler.Phase ignored = StartupProfiler.begin("deobfuscate")) {
 				String target = getLaunchTarget();
 				URL loc = launchClassLoader.findResource(target.replace('.', '/') + ".class");
 				JarURLConnection locConn = (JarURLConnection) loc.openConnection();
@@ -118,12 +122,16 @@ public abstract class FabricTweaker extends FabricLauncherBase implements ITweak
 			}
 		}
 
-		MinecraftGameProvider.TRANSFORMER.locateEntrypoints(this);
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("locateEntrypoints")) {
+			MinecraftGameProvider.TRANSFORMER.locateEntrypoints(this, provider);
+		}
 
 		// Setup Mixin environment
-		MixinBootstrap.init();
-		FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
-		MixinEnvironment.getDefaultEnvironment().setSide(getEnvironmentType() == EnvType.CLIENT ? MixinEnvironment.Side.CLIENT : MixinEnvironment.Side.SERVER);
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("Mixin bootstrap")) {
+			MixinBootstrap.init();
+			FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
+			MixinEnvironment.getDefaultEnvironment().setSide(getEnvironmentType() == EnvType.CLIENT ? MixinEnvironment.Side.CLIENT : MixinEnvironment.Side.SERVER);
+		}
 	}
 
 	@Override
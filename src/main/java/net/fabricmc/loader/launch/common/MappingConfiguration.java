@@ -31,6 +31,12 @@ public class MappingConfiguration {
 	private static boolean checkedMappings;
 
 	public Mappings getMappings() {
+		synchronized (MappingConfiguration.class) {
+			return loadMappings();
+		}
+	}
+
+	private Mappings loadMappings() {
 		if (!checkedMappings) {
 			InputStream mappingStream = FabricLauncherBase.class.getClassLoader().getResourceAsStream("mappings/mappings.tiny");
 
@@ -60,6 +66,20 @@ public class MappingConfiguration {
 		return mappings;
 	}
 
+	/**
+	 * Drop the loaded mappings, they will be read again if they are requested later.
+	 *
+	 * @return The released mappings, or null if none were loaded.
+	 */
+	public Mappings releaseMappings() {
+		synchronized (MappingConfiguration.class) {
+			Mappings ret = mappings;
+			mappings = null;
+			checkedMappings = false;
+			return ret;
+		}
+	}
+
 	public String getTargetNamespace() {
 		return FabricLauncherBase.getLauncher().isDevelopment() ? "named" : "intermediary";
 	}
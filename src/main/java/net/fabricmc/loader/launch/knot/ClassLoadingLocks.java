@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.knot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per class name locks which only exist while a class is being loaded.
+ *
+ * <p>{@link ClassLoader#getClassLoadingLock(String)} keeps a lock object for every name ever
+ * requested from a parallel capable loader, including names that were never found. These locks
+ * are reference counted instead and dropped as soon as the last thread loading a name is done,
+ * so memory is bounded by the number of concurrent loads. Threads loading the same name always
+ * share a lock, while unrelated names never contend.</p>
+ */
+final class ClassLoadingLocks {
+	private static final class Lock {
+		private int holders;
+	}
+
+	private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the lock for a class name. Every call must be followed by a call to {@link #release(String)}.
+	 */
+	Object acquire(String name) {
+		return locks.compute(name, (key, lock) -> {
+			if (lock == null) {
+				lock = new Lock();
+			}
+
+			lock.holders++;
+			return lock;
+		});
+	}
+
+	void release(String name) {
+		locks.computeIfPresent(name, (key, lock) -> --lock.holders == 0 ? null : lock);
+	}
+}
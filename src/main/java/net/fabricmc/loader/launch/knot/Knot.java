@@ -22,6 +22,7 @@ import net.fabricmc.loader.game.GameProvider;
 import net.fabricmc.loader.game.GameProviders;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
 import net.fabricmc.loader.launch.common.FabricMixinBootstrap;
+import net.fabricmc.loader.util.StartupProfiler;
 import net.fabricmc.loader.util.UrlConversionException;
 import net.fabricmc.loader.util.UrlUtil;
 import org.spongepowered.asm.launch.MixinBootstrap;
@@ -48,6 +49,7 @@ public final class Knot extends FabricLauncherBase {
 		this.gameJarFile = gameJarFile;
 	}
 
+	@SuppressWarnings("try")
 	protected void init(String[] args) {
 		setProperties(properties);
 
@@ -76,10 +78,12 @@ public final class Knot extends FabricLauncherBase {
 		List<GameProvider> providers = GameProviders.create();
 		provider = null;
 
-		for (GameProvider p : providers) {
-			if (p.locateGame(envType, this.getClass().getClassLoader())) {
-				provider = p;
-				break;
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("game locate")) {
+			for (GameProvider p : providers) {
+				if (p.locateGame(envType, this.getClass().getClassLoader())) {
+					provider = p;
+					break;
+				}
 			}
 		}
 
@@ -103,18 +107,22 @@ public final class Knot extends FabricLauncherBase {
 		loader = useCompatibility ? new KnotCompatibilityClassLoader(isDevelopment(), envType, provider) : new KnotClassLoader(isDevelopment(), envType, provider);
 
 		if(provider.isObfuscated()) {
-			for (Path path : provider.getGameContextJars()) {
-				FabricLauncherBase.deobfuscate(
-					provider.getGameId(), provider.getNormalizedGameVersion(),
-					provider.getLaunchDirectory(),
-					path,
-					this
-				);
+			try (StartupProfiler.Phase ignored = StartupProfiler.begin("deobfuscate")) {
+				for (Path path : provider.getGameContextJars()) {
+					FabricLauncherBase.deobfuscate(
+						provider.getGameId(), provider.getNormalizedGameVersion(),
+						provider.getLaunchDirectory(),
+						path,
+						this
+					);
+				}
 			}
 		}
 
 		// Locate entrypoints before switching class loaders
-		provider.getEntrypointTransformer().locateEntrypoints(this);
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("locateEntrypoints")) {
+			provider.getEntrypointTransformer().locateEntrypoints(this, provider);
+		}
 
 		Thread.currentThread().setContextClassLoader((ClassLoader) loader);
 
@@ -122,9 +130,11 @@ public final class Knot extends FabricLauncherBase {
 		FabricLoader.INSTANCE.load();
 		FabricLoader.INSTANCE.freeze();
 
-		MixinBootstrap.init();
-		FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
-		FabricLauncherBase.finishMixinBootstrapping();
+		try (StartupProfiler.Phase ignored = StartupProfiler.begin("Mixin bootstrap")) {
+			MixinBootstrap.init();
+			FabricMixinBootstrap.init(getEnvironmentType(), FabricLoader.INSTANCE);
+			FabricLauncherBase.finishMixinBootstrapping();
+		}
 
 		loader.getDelegate().initializeTransformers();
 
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.net.JarURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.FileSystemNotFoundException;
@@ -37,8 +38,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.CodeSource;
 import java.security.cert.Certificate;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Manifest;
 
 class KnotClassDelegate {
@@ -54,7 +55,17 @@ class KnotClassDelegate {
 		}
 	}
 
-	private final Map<String, Metadata> metadataCache = new HashMap<>();
+	static class ClassData {
+		final byte[] bytes;
+		final Metadata metadata;
+
+		ClassData(byte[] bytes, Metadata metadata) {
+			this.bytes = bytes;
+			this.metadata = metadata;
+		}
+	}
+
+	private final Map<String, Metadata> metadataCache = new ConcurrentHashMap<>();
 	private final KnotClassLoaderInterface itf;
 	private final GameProvider provider;
 	private final boolean isDevelopment;
@@ -93,10 +104,10 @@ class KnotClassDelegate {
 	Metadata getMetadata(String name, URL resourceURL) {
 		if (resourceURL != null) {
 			URL codeSourceURL = null;
-			String filename = name.replace('.', '/') + ".class";
+			String filename = getClassFileName(name);
 
 			try {
-				codeSourceURL = UrlUtil.getSource(filename, resourceURL);
+				codeSourceURL = getSource(filename, resourceURL);
 			} catch (UrlConversionException e) {
 				System.err.println("Could not find code source for " + resourceURL + ": " + e.getMessage());
 			}
@@ -155,35 +166,75 @@ class KnotClassDelegate {
 		return Metadata.EMPTY;
 	}
 
-	public byte[] loadClassData(String name, boolean resolve) {
-		if (!transformInitialized) {
-			try {
-				return getClassByteArray(name, true);
-			} catch (IOException e) {
-				throw new RuntimeException("Failed to load class file for '" + name + "'!", e);
+	/**
+	 * Find the code source URL of a resource without opening a connection to it.
+	 */
+	private static URL getSource(String filename, URL resourceURL) throws UrlConversionException {
+		if (resourceURL.getProtocol().equals("jar")) {
+			String path = resourceURL.getFile();
+			int separator = path.indexOf("!/");
+
+			if (separator >= 0) {
+				try {
+					return new URL(path.substring(0, separator));
+				} catch (MalformedURLException e) {
+					throw new UrlConversionException(e);
+				}
+			}
+		} else if (resourceURL.getProtocol().equals("file")) {
+			String path = resourceURL.getPath();
+
+			if (path.endsWith(filename)) {
+				try {
+					return new URL(resourceURL.getProtocol(), resourceURL.getHost(), resourceURL.getPort(), path.substring(0, path.length() - filename.length()));
+				} catch (MalformedURLException e) {
+					throw new UrlConversionException(e);
+				}
 			}
 		}
 
+		return UrlUtil.getSource(filename, resourceURL);
+	}
+
+	/**
+	 * Load and transform a class, locating its class file and code source with a single lookup.
+	 *
+	 * @return The class bytes and metadata, or null if the class could not be found.
+	 */
+	ClassData loadClassData(String name, boolean resolve) {
+		URL resourceURL = null;
+		byte[] input = null;
+
 		// Blocking Fabric Loader classes is no longer necessary here as they don't exist on the modding class loader
-		if (/* !"net.fabricmc.api.EnvType".equals(name) && !name.startsWith("net.fabricmc.loader.") && */ !name.startsWith("org.apache.logging.log4j")) {
-			byte[] input = provider.getEntrypointTransformer().transform(name);
-			if (input == null) {
+		if (!transformInitialized || /* !"net.fabricmc.api.EnvType".equals(name) && !name.startsWith("net.fabricmc.loader.") && */ !name.startsWith("org.apache.logging.log4j")) {
+			resourceURL = itf.getResource(getClassFileName(name), true);
+
+			if (transformInitialized) {
+				input = provider.getEntrypointTransformer().transform(name);
+			}
+
+			if (input == null && resourceURL != null) {
 				try {
-					input = getClassByteArray(name, true);
+					input = readClassBytes(resourceURL);
 				} catch (IOException e) {
 					throw new RuntimeException("Failed to load class file for '" + name + "'!", e);
 				}
 			}
 
+			if (!transformInitialized) {
+				return input != null ? new ClassData(input, getMetadata(name, resourceURL)) : null;
+			}
+
 			if (input != null) {
 				byte[] b = FabricTransformer.transform(isDevelopment, envType, name, input);
 				b = getMixinTransformer().transformClassBytes(name, name, b);
-				return b;
+				return new ClassData(b, getMetadata(name, resourceURL));
 			}
 		}
 
 		// We haven't found a class by now, but it could be injected by Mixin
-		return getMixinTransformer().transformClassBytes(name, name, null);
+		byte[] b = getMixinTransformer().transformClassBytes(name, name, null);
+		return b != null ? new ClassData(b, Metadata.EMPTY) : null;
 	}
 
 	String getClassFileName(String name) {
@@ -197,6 +248,15 @@ class KnotClassDelegate {
 			return null;
 		}
 
+		return readFully(inputStream);
+	}
+
+	private static byte[] readClassBytes(URL resourceURL) throws IOException {
+		URLConnection connection = resourceURL.openConnection();
+		return readFully(connection.getInputStream());
+	}
+
+	private static byte[] readFully(InputStream inputStream) throws IOException {
 		int a = inputStream.available();
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(a < 32 ? 32768 : a);
 		byte[] buffer = new byte[8192];
@@ -26,16 +26,25 @@ import java.net.URLClassLoader;
 import java.security.SecureClassLoader;
 import java.util.Enumeration;
 import java.util.Objects;
+import java.util.Set;
 
 class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterface {
 	private static class DynamicURLClassLoader extends URLClassLoader {
+		private final NegativeLookupCache missCache = new NegativeLookupCache();
+
 		private DynamicURLClassLoader(URL[] urls) {
 			super(urls, new DummyClassLoader());
 		}
 
+		@Override
+		public URL findResource(String name) {
+			return missCache.lookup(name, super::findResource);
+		}
+
 		@Override
 		public void addURL(URL url) {
 			super.addURL(url);
+			missCache.invalidate();
 		}
 
 		static {
@@ -46,6 +55,10 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 	private final DynamicURLClassLoader urlLoader;
 	private final ClassLoader originalLoader;
 	private final KnotClassDelegate delegate;
+	private final ClassLoadingLocks locks = new ClassLoadingLocks();
+	// the original loader's class path doesn't change, so its misses never need to be invalidated
+	private final NegativeLookupCache originalResourceMisses = new NegativeLookupCache();
+	private final NegativeLookupCache originalClassMisses = new NegativeLookupCache();
 
 	KnotClassLoader(boolean isDevelopment, EnvType envType, GameProvider provider) {
 		super(new DynamicURLClassLoader(new URL[0]));
@@ -61,9 +74,7 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 
 	@Override
 	public boolean isClassLoaded(String name) {
-		synchronized (getClassLoadingLock(name)) {
-			return findLoadedClass(name) != null;
-		}
+		return findLoadedClass(name) != null;
 	}
 
 	@Override
@@ -72,7 +83,7 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 
 		URL url = urlLoader.getResource(name);
 		if (url == null) {
-			url = originalLoader.getResource(name);
+			url = originalResourceMisses.lookup(name, originalLoader::getResource);
 		}
 		return url;
 	}
@@ -83,7 +94,7 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 
 		InputStream inputStream = urlLoader.getResourceAsStream(name);
 		if (inputStream == null) {
-			inputStream = originalLoader.getResourceAsStream(name);
+			inputStream = originalResourceMisses.lookup(name, originalLoader::getResourceAsStream);
 		}
 		return inputStream;
 	}
@@ -136,36 +147,66 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 
 	@Override
 	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-		synchronized (getClassLoadingLock(name)) {
-			Class<?> c = findLoadedClass(name);
-
-			if (c == null) {
-				byte[] input = delegate.loadClassData(name, resolve);
-				if (input != null) {
-					KnotClassDelegate.Metadata metadata = delegate.getMetadata(name, urlLoader.getResource(delegate.getClassFileName(name)));
-
-					int pkgDelimiterPos = name.lastIndexOf('.');
-					if (pkgDelimiterPos > 0) {
-						// TODO: package definition stub
-						String pkgString = name.substring(0, pkgDelimiterPos);
-						if (getPackage(pkgString) == null) {
-							definePackage(pkgString, null, null, null, null, null, null, null);
-						}
-					}
+		// classes which are already loaded don't need a lock
+		Class<?> c = findLoadedClass(name);
+
+		if (c == null) {
+			Object lock = locks.acquire(name);
 
-					c = defineClass(name, input, 0, input.length, metadata.codeSource);
+			try {
+				synchronized (lock) {
+					c = loadClassLocked(name, resolve);
 				}
+			} finally {
+				locks.release(name);
 			}
+		}
 
-			if (c == null) {
-				c = originalLoader.loadClass(name);
-			}
+		if (resolve) {
+			resolveClass(c);
+		}
+
+		return c;
+	}
+
+	private Class<?> loadClassLocked(String name, boolean resolve) throws ClassNotFoundException {
+		Class<?> c = findLoadedClass(name);
+
+		if (c == null) {
+			KnotClassDelegate.ClassData data = delegate.loadClassData(name, resolve);
+			if (data != null) {
+				int pkgDelimiterPos = name.lastIndexOf('.');
+				if (pkgDelimiterPos > 0) {
+					// TODO: package definition stub
+					String pkgString = name.substring(0, pkgDelimiterPos);
+					if (getPackage(pkgString) == null) {
+						definePackage(pkgString, null, null, null, null, null, null, null);
+					}
+				}
 
-			if (resolve) {
-				resolveClass(c);
+				c = defineClass(name, data.bytes, 0, data.bytes.length, data.metadata.codeSource);
 			}
+		}
+
+		if (c == null) {
+			c = loadOriginalClass(name);
+		}
+
+		return c;
+	}
+
+	private Class<?> loadOriginalClass(String name) throws ClassNotFoundException {
+		Set<String> misses = originalClassMisses.snapshot();
 
-			return c;
+		if (misses.contains(name)) {
+			throw new ClassNotFoundException(name);
+		}
+
+		try {
+			return originalLoader.loadClass(name);
+		} catch (ClassNotFoundException e) {
+			originalClassMisses.addMiss(misses, name);
+			throw e;
 		}
 	}
 
@@ -182,8 +223,17 @@ class KnotClassLoader extends SecureClassLoader implements KnotClassLoaderInterf
 	public InputStream getResourceAsStream(String classFile, boolean skipOriginalLoader) throws IOException {
 		InputStream inputStream = urlLoader.getResourceAsStream(classFile);
 		if (inputStream == null && !skipOriginalLoader) {
-			inputStream = originalLoader.getResourceAsStream(classFile);
+			inputStream = originalResourceMisses.lookup(classFile, originalLoader::getResourceAsStream);
 		}
 		return inputStream;
 	}
+
+	@Override
+	public URL getResource(String filename, boolean skipOriginalLoader) {
+		URL url = urlLoader.getResource(filename);
+		if (url == null && !skipOriginalLoader) {
+			url = originalResourceMisses.lookup(filename, originalLoader::getResource);
+		}
+		return url;
+	}
 }
@@ -23,9 +23,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Set;
 
 class KnotCompatibilityClassLoader extends URLClassLoader implements KnotClassLoaderInterface {
 	private final KnotClassDelegate delegate;
+	private final ClassLoadingLocks locks = new ClassLoadingLocks();
+	private final NegativeLookupCache resourceMisses = new NegativeLookupCache();
+	private final NegativeLookupCache ownResourceMisses = new NegativeLookupCache();
+	// the parent's class path doesn't change, so its misses never need to be invalidated
+	private final NegativeLookupCache parentClassMisses = new NegativeLookupCache();
 
 	KnotCompatibilityClassLoader(boolean isDevelopment, EnvType envType, GameProvider provider) {
 		super(new URL[0], KnotCompatibilityClassLoader.class.getClassLoader());
@@ -39,49 +45,89 @@ class KnotCompatibilityClassLoader extends URLClassLoader implements KnotClassLo
 
 	@Override
 	public boolean isClassLoaded(String name) {
-		synchronized (getClassLoadingLock(name)) {
-			return findLoadedClass(name) != null;
-		}
+		return findLoadedClass(name) != null;
 	}
 
 	@Override
 	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-		synchronized (getClassLoadingLock(name)) {
-			Class<?> c = findLoadedClass(name);
-
-			if (c == null) {
-				byte[] input = delegate.loadClassData(name, resolve);
-				if (input != null) {
-					KnotClassDelegate.Metadata metadata = delegate.getMetadata(name, getResource(delegate.getClassFileName(name)));
-
-					int pkgDelimiterPos = name.lastIndexOf('.');
-					if (pkgDelimiterPos > 0) {
-						// TODO: package definition stub
-						String pkgString = name.substring(0, pkgDelimiterPos);
-						if (getPackage(pkgString) == null) {
-							definePackage(pkgString, null, null, null, null, null, null, null);
-						}
-					}
+		// classes which are already loaded don't need a lock
+		Class<?> c = findLoadedClass(name);
+
+		if (c == null) {
+			Object lock = locks.acquire(name);
 
-					c = defineClass(name, input, 0, input.length, metadata.codeSource);
+			try {
+				synchronized (lock) {
+					c = loadClassLocked(name, resolve);
 				}
+			} finally {
+				locks.release(name);
 			}
+		}
 
-			if (c == null) {
-				c = getParent().loadClass(name);
-			}
+		if (resolve) {
+			resolveClass(c);
+		}
+
+		return c;
+	}
 
-			if (resolve) {
-				resolveClass(c);
+	private Class<?> loadClassLocked(String name, boolean resolve) throws ClassNotFoundException {
+		Class<?> c = findLoadedClass(name);
+
+		if (c == null) {
+			KnotClassDelegate.ClassData data = delegate.loadClassData(name, resolve);
+			if (data != null) {
+				int pkgDelimiterPos = name.lastIndexOf('.');
+				if (pkgDelimiterPos > 0) {
+					// TODO: package definition stub
+					String pkgString = name.substring(0, pkgDelimiterPos);
+					if (getPackage(pkgString) == null) {
+						definePackage(pkgString, null, null, null, null, null, null, null);
+					}
+				}
+
+				c = defineClass(name, data.bytes, 0, data.bytes.length, data.metadata.codeSource);
 			}
+		}
 
-			return c;
+		if (c == null) {
+			c = loadParentClass(name);
 		}
+
+		return c;
+	}
+
+	private Class<?> loadParentClass(String name) throws ClassNotFoundException {
+		Set<String> misses = parentClassMisses.snapshot();
+
+		if (misses.contains(name)) {
+			throw new ClassNotFoundException(name);
+		}
+
+		try {
+			return getParent().loadClass(name);
+		} catch (ClassNotFoundException e) {
+			parentClassMisses.addMiss(misses, name);
+			throw e;
+		}
+	}
+
+	@Override
+	public URL getResource(String name) {
+		return resourceMisses.lookup(name, super::getResource);
+	}
+
+	@Override
+	public URL findResource(String name) {
+		return ownResourceMisses.lookup(name, super::findResource);
 	}
 
 	@Override
 	public void addURL(URL url) {
 		super.addURL(url);
+		resourceMisses.invalidate();
+		ownResourceMisses.invalidate();
 	}
 
 	static {
@@ -98,4 +144,15 @@ class KnotCompatibilityClassLoader extends URLClassLoader implements KnotClassLo
 
 		return super.getResourceAsStream(classFile);
 	}
+
+	@Override
+	public URL getResource(String filename, boolean skipOriginalLoader) {
+		if (skipOriginalLoader) {
+			if (findResource(filename) == null) {
+				return null;
+			}
+		}
+
+		return super.getResource(filename);
+	}
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.launch.knot;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers names a lookup failed to find, so repeated probes for missing classes and
+ * resources don't have to search the class path again.
+ *
+ * <p>The cache must be invalidated after the searched class path changed. Lookups racing
+ * with an invalidation record their misses in the discarded set, so they never hide an
+ * entry added by the new code source.</p>
+ */
+final class NegativeLookupCache {
+	private static final int CACHE_LIMIT = 16384;
+
+	private volatile Set<String> misses = ConcurrentHashMap.newKeySet();
+
+	interface Lookup<T, E extends Exception> {
+		T lookup(String name) throws E;
+	}
+
+	/**
+	 * Run a lookup unless it is already known to fail.
+	 *
+	 * @return The lookup result, or null if the name is missing.
+	 */
+	<T, E extends Exception> T lookup(String name, Lookup<T, E> lookup) throws E {
+		Set<String> misses = this.misses;
+
+		if (misses.contains(name)) {
+			return null;
+		}
+
+		T result = lookup.lookup(name);
+
+		if (result == null) {
+			addMiss(misses, name);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Capture the current miss set, to be passed to {@link #addMiss} once a lookup started after this call failed.
+	 */
+	Set<String> snapshot() {
+		return misses;
+	}
+
+	void addMiss(Set<String> snapshot, String name) {
+		if (snapshot.size() < CACHE_LIMIT) {
+			snapshot.add(name);
+		}
+	}
+
+	void invalidate() {
+		misses = ConcurrentHashMap.newKeySet();
+	}
+}
@@ -0,0 +1,477 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.api.metadata.ContactInformation;
+import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.api.metadata.Person;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Memory efficient copy of parsed mod metadata, kept for the lifetime of each loaded mod.
+ *
+ * <p>IDs and other strings shared between mods are interned. Authors, contributors, contact information
+ * and custom values are rarely read, so they are stored as UTF-8 encoded JSON and decoded on every access.</p>
+ */
+public final class CompactModMetadata implements LoaderModMetadata {
+	private static final JsonParser JSON_PARSER = new JsonParser();
+
+	private final String type;
+	private final int schemaVersion;
+	private final String id;
+	private final Version version;
+
+	private final Collection<ModDependency> depends;
+	private final Collection<ModDependency> recommends;
+	private final Collection<ModDependency> suggests;
+	private final Collection<ModDependency> conflicts;
+	private final Collection<ModDependency> breaks;
+
+	private final String name;
+	private final String description;
+	private final byte[] authors;
+	private final byte[] contributors;
+	private final byte[] contact;
+	private final Collection<String> license;
+	private final IntFunction<Optional<String>> iconLookup;
+	private final Map<String, byte[]> custom;
+
+	private final String oldStyleLanguageAdapter;
+	private final Map<String, String> languageAdapterDefinitions;
+	private final Collection<NestedJarEntry> jars;
+	private final Collection<String> clientMixinConfigs;
+	private final Collection<String> serverMixinConfigs;
+	private final boolean loadsOnClient;
+	private final boolean loadsOnServer;
+	private final Collection<String> oldInitializers;
+	private final Map<String, List<EntrypointMetadata>> entrypoints;
+
+	private CompactModMetadata(LoaderModMetadata metadata, IntFunction<Optional<String>> iconLookup) throws IOException {
+		type = metadata.getType().intern();
+		schemaVersion = metadata.getSchemaVersion();
+		id = metadata.getId().intern();
+		version = metadata.getVersion();
+
+		depends = copy(metadata.getDepends());
+		recommends = copy(metadata.getRecommends());
+		suggests = copy(metadata.getSuggests());
+		conflicts = copy(metadata.getConflicts());
+		breaks = copy(metadata.getBreaks());
+
+		name = metadata.getName();
+		description = metadata.getDescription();
+		authors = writePersons(metadata.getAuthors());
+		contributors = writePersons(metadata.getContributors());
+		contact = writeContact(metadata.getContact());
+		license = copy(metadata.getLicense());
+		this.iconLookup = iconLookup;
+		custom = writeCustom(metadata);
+
+		oldStyleLanguageAdapter = metadata.getOldStyleLanguageAdapter().intern();
+		languageAdapterDefinitions = copy(metadata.getLanguageAdapterDefinitions());
+		jars = copy(metadata.getJars());
+		clientMixinConfigs = copy(metadata.getMixinConfigs(EnvType.CLIENT));
+		serverMixinConfigs = copy(metadata.getMixinConfigs(EnvType.SERVER));
+		loadsOnClient = metadata.loadsInEnvironment(EnvType.CLIENT);
+		loadsOnServer = metadata.loadsInEnvironment(EnvType.SERVER);
+		oldInitializers = copy(metadata.getOldInitializers());
+		entrypoints = copyEntrypoints(metadata);
+	}
+
+	/**
+	 * Create the compact form of parsed fabric.mod.json metadata.
+	 *
+	 * <p>Other metadata is returned as is. So is metadata with fields that can't be read, so that reading
+	 * them still fails the same way.</p>
+	 */
+	public static LoaderModMetadata compact(LoaderModMetadata metadata) {
+		IntFunction<Optional<String>> iconLookup;
+
+		if (metadata instanceof ModMetadataV1) {
+			ModMetadataV1.IconEntry icon = ((ModMetadataV1) metadata).getIconEntry();
+
+			if (icon == null) {
+				return metadata;
+			}
+
+			iconLookup = icon::getPath;
+		} else if (metadata instanceof ModMetadataV0) {
+			Optional<String> icon = metadata.getIconPath(0);
+			iconLookup = (size) -> icon;
+		} else {
+			return metadata;
+		}
+
+		try {
+			return new CompactModMetadata(metadata, iconLookup);
+		} catch (IOException | RuntimeException e) {
+			return metadata;
+		}
+	}
+
+	private static <T> Collection<T> copy(Collection<T> collection) {
+		if (collection.isEmpty()) {
+			return Collections.emptyList();
+		} else if (collection.size() == 1) {
+			return Collections.singletonList(collection.iterator().next());
+		} else {
+			return Collections.unmodifiableList(new ArrayList<>(collection));
+		}
+	}
+
+	private static Map<String, String> copy(Map<String, String> map) {
+		if (map.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, String> ret = new HashMap<>(map.size() * 4 / 3 + 1);
+
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			ret.put(entry.getKey().intern(), entry.getValue());
+		}
+
+		return Collections.unmodifiableMap(ret);
+	}
+
+	private static Map<String, List<EntrypointMetadata>> copyEntrypoints(LoaderModMetadata metadata) {
+		Collection<String> keys = metadata.getEntrypointKeys();
+
+		if (keys.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, List<EntrypointMetadata>> ret = new HashMap<>(keys.size() * 4 / 3 + 1);
+
+		for (String key : keys) {
+			ret.put(key.intern(), Collections.unmodifiableList(new ArrayList<>(metadata.getEntrypoints(key))));
+		}
+
+		return Collections.unmodifiableMap(ret);
+	}
+
+	private static byte[] writePersons(Collection<Person> persons) throws IOException {
+		if (persons.isEmpty()) {
+			return null;
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			writer.beginArray();
+
+			for (Person person : persons) {
+				Map<String, String> contact = person.getContact().asMap();
+
+				// most persons are only a name
+				if (contact.isEmpty()) {
+					writer.value(person.getName());
+				} else {
+					writer.beginObject();
+					writer.name("name").value(person.getName());
+					writer.name("contact");
+					writeMap(writer, contact);
+					writer.endObject();
+				}
+			}
+
+			writer.endArray();
+		}
+
+		return out.toByteArray();
+	}
+
+	private static byte[] writeContact(ContactInformation contact) throws IOException {
+		Map<String, String> map = contact.asMap();
+
+		if (map.isEmpty()) {
+			return null;
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			writeMap(writer, map);
+		}
+
+		return out.toByteArray();
+	}
+
+	private static void writeMap(JsonWriter writer, Map<String, String> map) throws IOException {
+		writer.beginObject();
+
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			writer.name(entry.getKey()).value(entry.getValue());
+		}
+
+		writer.endObject();
+	}
+
+	private static Map<String, byte[]> writeCustom(LoaderModMetadata metadata) {
+		Map<String, JsonElement> custom;
+
+		if (metadata instanceof ModMetadataV1) {
+			custom = ((ModMetadataV1) metadata).getCustomElements();
+		} else {
+			custom = Collections.emptyMap();
+		}
+
+		if (custom.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, byte[]> ret = new HashMap<>(custom.size() * 4 / 3 + 1);
+
+		for (Map.Entry<String, JsonElement> entry : custom.entrySet()) {
+			ret.put(entry.getKey().intern(), entry.getValue().toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		return ret;
+	}
+
+	private static JsonReader createReader(byte[] json) {
+		return new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8));
+	}
+
+	private static Collection<Person> readPersons(byte[] json) {
+		if (json == null) {
+			return Collections.emptyList();
+		}
+
+		List<Person> persons = new ArrayList<>();
+
+		try (JsonReader reader = createReader(json)) {
+			reader.beginArray();
+
+			while (reader.hasNext()) {
+				if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+					String name = null;
+					ContactInformation contact = ContactInformation.EMPTY;
+					reader.beginObject();
+
+					while (reader.hasNext()) {
+						if (reader.nextName().equals("name")) {
+							name = JsonReaders.readNullableString(reader);
+						} else {
+							contact = new MapBackedContactInformation(readMap(reader));
+						}
+					}
+
+					reader.endObject();
+					persons.add(new SimplePerson(name, contact));
+				} else {
+					persons.add(new SimplePerson(JsonReaders.readNullableString(reader), ContactInformation.EMPTY));
+				}
+			}
+
+			reader.endArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return persons;
+	}
+
+	private static Map<String, String> readMap(JsonReader reader) throws IOException {
+		return JsonReaders.readMap(reader, LinkedHashMap::new, JsonReaders::readNullableString);
+	}
+
+	@Override
+	public String getType() {
+		return type;
+	}
+
+	@Override
+	public int getSchemaVersion() {
+		return schemaVersion;
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public Version getVersion() {
+		return version;
+	}
+
+	@Override
+	public Collection<ModDependency> getDepends() {
+		return depends;
+	}
+
+	@Override
+	public Collection<ModDependency> getRecommends() {
+		return recommends;
+	}
+
+	@Override
+	public Collection<ModDependency> getSuggests() {
+		return suggests;
+	}
+
+	@Override
+	public Collection<ModDependency> getConflicts() {
+		return conflicts;
+	}
+
+	@Override
+	public Collection<ModDependency> getBreaks() {
+		return breaks;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getDescription() {
+		return description;
+	}
+
+	@Override
+	public Collection<Person> getAuthors() {
+		return readPersons(authors);
+	}
+
+	@Override
+	public Collection<Person> getContributors() {
+		return readPersons(contributors);
+	}
+
+	@Override
+	public ContactInformation getContact() {
+		if (contact == null) {
+			return ContactInformation.EMPTY;
+		}
+
+		try (JsonReader reader = createReader(contact)) {
+			return new MapBackedContactInformation(readMap(reader));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Collection<String> getLicense() {
+		return license;
+	}
+
+	@Override
+	public Optional<String> getIconPath(int size) {
+		return iconLookup.apply(size);
+	}
+
+	@Override
+	public boolean containsCustomElement(String key) {
+		return custom.containsKey(key);
+	}
+
+	@Override
+	public JsonElement getCustomElement(String key) {
+		byte[] json = custom.get(key);
+
+		if (json == null) {
+			return null;
+		}
+
+		try (JsonReader reader = createReader(json)) {
+			return JSON_PARSER.parse(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public String getOldStyleLanguageAdapter() {
+		return oldStyleLanguageAdapter;
+	}
+
+	@Override
+	public Map<String, String> getLanguageAdapterDefinitions() {
+		return languageAdapterDefinitions;
+	}
+
+	@Override
+	public Collection<NestedJarEntry> getJars() {
+		return jars;
+	}
+
+	@Override
+	public Collection<String> getMixinConfigs(EnvType type) {
+		return type == EnvType.CLIENT ? clientMixinConfigs : serverMixinConfigs;
+	}
+
+	@Override
+	public boolean loadsInEnvironment(EnvType type) {
+		return type == EnvType.CLIENT ? loadsOnClient : loadsOnServer;
+	}
+
+	@Override
+	public Collection<String> getOldInitializers() {
+		return oldInitializers;
+	}
+
+	@Override
+	public List<EntrypointMetadata> getEntrypoints(String type) {
+		List<EntrypointMetadata> list = entrypoints.get(type);
+		return list != null ? list : Collections.emptyList();
+	}
+
+	@Override
+	public Collection<String> getEntrypointKeys() {
+		return entrypoints.keySet();
+	}
+
+	@Override
+	public void emitFormatWarnings(Logger logger) {
+		// emitted by the resolver from the parsed metadata, before it is compacted
+	}
+
+	private static final class SimplePerson implements Person {
+		private final String name;
+		private final ContactInformation contact;
+
+		SimplePerson(String name, ContactInformation contact) {
+			this.name = name;
+			this.contact = contact;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public ContactInformation getContact() {
+			return contact;
+		}
+	}
+}
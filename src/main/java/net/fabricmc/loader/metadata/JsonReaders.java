@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.util.version.VersionDeserializer;
+import net.fabricmc.loader.util.version.VersionParsingException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for reading mod metadata from a {@link JsonReader}. Each one accepts exactly what the
+ * corresponding Gson binding or {@link JsonElement} accessor accepts, so the streaming parser
+ * produces the same metadata as the tree based one.
+ */
+final class JsonReaders {
+	interface ValueReader<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
+	private static final JsonParser JSON_PARSER = new JsonParser();
+
+	private JsonReaders() {
+
+	}
+
+	/**
+	 * Consume a null value, if there is one. Mirrors Gson's handling of null for registered deserializers.
+	 */
+	static boolean readNull(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return Whether the next value would be a {@link com.google.gson.JsonPrimitive}.
+	 */
+	static boolean isPrimitive(JsonReader reader) throws IOException {
+		JsonToken token = reader.peek();
+		return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN;
+	}
+
+	/**
+	 * Read a value bound to a String field.
+	 */
+	static String readNullableString(JsonReader reader) throws IOException {
+		switch (reader.peek()) {
+			case NULL:
+				reader.nextNull();
+				return null;
+			case BOOLEAN:
+				return Boolean.toString(reader.nextBoolean());
+			default:
+				return reader.nextString();
+		}
+	}
+
+	/**
+	 * Read a value as {@link JsonElement#getAsString()} would return it.
+	 */
+	static String readAsString(JsonReader reader) throws IOException {
+		JsonToken token = reader.peek();
+
+		if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+			return reader.nextString();
+		}
+
+		// rare cases (booleans, single element arrays and failures) go through the element itself
+		return readElement(reader).getAsString();
+	}
+
+	static JsonElement readElement(JsonReader reader) {
+		return JSON_PARSER.parse(reader);
+	}
+
+	static Version readVersion(JsonReader reader) throws IOException {
+		if (readNull(reader)) {
+			return null;
+		} else if (!isPrimitive(reader)) {
+			throw new JsonParseException("Version must be a non-empty string!");
+		}
+
+		try {
+			return VersionDeserializer.deserialize(readAsString(reader));
+		} catch (VersionParsingException e) {
+			throw new JsonParseException(e);
+		}
+	}
+
+	/**
+	 * Read a value bound to a map with string keys, in either object or key-value array form.
+	 */
+	static <V, M extends Map<String, V>> M readMap(JsonReader reader, Supplier<M> constructor, ValueReader<V> valueReader) throws IOException {
+		if (readNull(reader)) {
+			return null;
+		}
+
+		M map = constructor.get();
+
+		if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+
+			while (reader.hasNext()) {
+				reader.beginArray();
+				String key = readNullableString(reader);
+				V value = valueReader.read(reader);
+
+				if (map.put(key, value) != null) {
+					throw new JsonSyntaxException("duplicate key: " + key);
+				}
+
+				reader.endArray();
+			}
+
+			reader.endArray();
+		} else {
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				// duplicate keys collapse to the last value, as they do in a JsonObject
+				String key = reader.nextName();
+				map.put(key, valueReader.read(reader));
+			}
+
+			reader.endObject();
+		}
+
+		return map;
+	}
+
+	/**
+	 * Read a value bound to an array field.
+	 */
+	static <T> T[] readArray(JsonReader reader, IntFunction<T[]> arrayConstructor, ValueReader<T> elementReader) throws IOException {
+		if (readNull(reader)) {
+			return null;
+		}
+
+		List<T> list = new ArrayList<>();
+		reader.beginArray();
+
+		while (reader.hasNext()) {
+			list.add(elementReader.read(reader));
+		}
+
+		reader.endArray();
+		return list.toArray(arrayConstructor.apply(list.size()));
+	}
+
+	/**
+	 * Read a string or array of strings, with {@link JsonElement#getAsString()} semantics for each string.
+	 *
+	 * @param error Creates the exception thrown for any other value.
+	 */
+	static List<String> readStringOrArray(JsonReader reader, Supplier<RuntimeException> error) throws IOException {
+		List<String> list = new ArrayList<>();
+
+		if (isPrimitive(reader)) {
+			list.add(readAsString(reader));
+		} else if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+
+			while (reader.hasNext()) {
+				list.add(readAsString(reader));
+			}
+
+			reader.endArray();
+		} else {
+			throw error.get();
+		}
+
+		return list;
+	}
+}
@@ -16,13 +16,19 @@
 
 package net.fabricmc.loader.metadata;
 
+import com.google.common.io.CharStreams;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.fabricmc.loader.FabricLoader;
 import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.util.version.VersionDeserializer;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 
 public class ModMetadataParser {
 	public static final int LATEST_VERSION = 1;
@@ -50,6 +56,11 @@ public class ModMetadataParser {
 
 	private static final JsonParser JSON_PARSER = new JsonParser();
 
+	/**
+	 * Returned by {@link #getSchemaVersion(String)} for documents the streaming readers don't handle.
+	 */
+	private static final int SCHEMA_UNSUPPORTED = -1;
+
 	private static LoaderModMetadata getMod(FabricLoader loader, JsonObject object) {
 		if (!object.has("schemaVersion")) {
 			return GSON_V0.fromJson(object, ModMetadataV0.class);
@@ -65,8 +76,97 @@ public class ModMetadataParser {
 		}
 	}
 
+	/**
+	 * Parse the metadata in a fabric.mod.json stream.
+	 *
+	 * <p>Well-formed v0 and v1 documents are read straight into the metadata classes without building a
+	 * {@link JsonElement} tree first. Anything else, including malformed JSON, goes through
+	 * {@link #getModsFromTree(FabricLoader, InputStream)} so it is reported exactly as before.</p>
+	 */
 	public static LoaderModMetadata[] getMods(FabricLoader loader, InputStream in) {
-		JsonElement el = JSON_PARSER.parse(new InputStreamReader(in));
+		String json;
+
+		try {
+			json = CharStreams.toString(new InputStreamReader(in));
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+
+		LoaderModMetadata metadata;
+
+		switch (getSchemaVersion(json)) {
+			case 0:
+				metadata = read(json, ModMetadataV0::read);
+				break;
+			case 1:
+				metadata = read(json, ModMetadataV1::read);
+				break;
+			default:
+				return getModsFromTree(loader, new StringReader(json));
+		}
+
+		return new LoaderModMetadata[] { metadata };
+	}
+
+	/**
+	 * Find the schema version with a quick pass over the top level keys, since it may come after other fields.
+	 *
+	 * @return 0 if there is no schema version, {@link #SCHEMA_UNSUPPORTED} if the document isn't a single
+	 * well-formed object with a supported schema version.
+	 */
+	private static int getSchemaVersion(String json) {
+		try {
+			JsonReader reader = createReader(json);
+
+			if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				return SCHEMA_UNSUPPORTED;
+			}
+
+			int schemaVersion = 0;
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				if (reader.nextName().equals("schemaVersion")) {
+					int value = JsonReaders.readElement(reader).getAsInt();
+					schemaVersion = value >= 1 && value <= LATEST_VERSION ? value : SCHEMA_UNSUPPORTED;
+				} else {
+					reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return reader.peek() == JsonToken.END_DOCUMENT ? schemaVersion : SCHEMA_UNSUPPORTED;
+		} catch (IOException | RuntimeException e) {
+			// the tree parser reports the error
+			return SCHEMA_UNSUPPORTED;
+		}
+	}
+
+	private static LoaderModMetadata read(String json, JsonReaders.ValueReader<? extends LoaderModMetadata> metadataReader) {
+		try {
+			return metadataReader.read(createReader(json));
+		} catch (IOException | IllegalStateException e) {
+			// matches Gson.fromJson
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	private static JsonReader createReader(String json) {
+		JsonReader reader = new JsonReader(new StringReader(json));
+		reader.setLenient(true);
+		return reader;
+	}
+
+	/**
+	 * Parse the metadata by binding a {@link JsonElement} tree with Gson. This is the reference the streaming
+	 * parser in {@link #getMods(FabricLoader, InputStream)} is tested against.
+	 */
+	public static LoaderModMetadata[] getModsFromTree(FabricLoader loader, InputStream in) {
+		return getModsFromTree(loader, new InputStreamReader(in));
+	}
+
+	private static LoaderModMetadata[] getModsFromTree(FabricLoader loader, Reader in) {
+		JsonElement el = JSON_PARSER.parse(in);
 		if (el.isJsonObject()) {
 			LoaderModMetadata metadata = getMod(loader, el.getAsJsonObject());
 			if (metadata != null) {
@@ -19,12 +19,15 @@ package net.fabricmc.loader.metadata;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.loader.api.metadata.ContactInformation;
 import net.fabricmc.loader.api.metadata.ModDependency;
 import net.fabricmc.loader.api.Version;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -59,6 +62,80 @@ public class ModMetadataV0 implements LoaderModMetadata {
 	private Person[] contributors = new Person[0];
 	private String license = "";
 
+	/**
+	 * Read the metadata directly from a JSON stream, with the same results as binding it through Gson.
+	 */
+	static ModMetadataV0 read(JsonReader reader) throws IOException {
+		ModMetadataV0 ret = new ModMetadataV0();
+		reader.beginObject();
+
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "id":
+					ret.id = JsonReaders.readNullableString(reader);
+					break;
+				case "version":
+					ret.version = JsonReaders.readVersion(reader);
+					break;
+				case "requires":
+					ret.requires = JsonReaders.readMap(reader, DependencyMap::new, Dependency::read);
+					break;
+				case "conflicts":
+					ret.conflicts = JsonReaders.readMap(reader, DependencyMap::new, Dependency::read);
+					break;
+				case "languageAdapter":
+					ret.languageAdapter = JsonReaders.readNullableString(reader);
+					break;
+				case "mixins":
+					ret.mixins = Mixins.read(reader);
+					break;
+				case "side":
+					ret.side = Side.read(reader);
+					break;
+				case "lazilyLoaded":
+					// like Gson, null leaves the default in place and strings are parsed leniently
+					if (reader.peek() == JsonToken.STRING) {
+						ret.lazilyLoaded = Boolean.parseBoolean(reader.nextString());
+					} else if (!JsonReaders.readNull(reader)) {
+						ret.lazilyLoaded = reader.nextBoolean();
+					}
+					break;
+				case "initializer":
+					ret.initializer = JsonReaders.readNullableString(reader);
+					break;
+				case "initializers":
+					ret.initializers = JsonReaders.readArray(reader, String[]::new, JsonReaders::readNullableString);
+					break;
+				case "name":
+					ret.name = JsonReaders.readNullableString(reader);
+					break;
+				case "description":
+					ret.description = JsonReaders.readNullableString(reader);
+					break;
+				case "links":
+					ret.links = Links.read(reader);
+					break;
+				case "recommends":
+					ret.recommends = JsonReaders.readMap(reader, DependencyMap::new, Dependency::read);
+					break;
+				case "authors":
+					ret.authors = JsonReaders.readArray(reader, Person[]::new, Person::read);
+					break;
+				case "contributors":
+					ret.contributors = JsonReaders.readArray(reader, Person[]::new, Person::read);
+					break;
+				case "license":
+					ret.license = JsonReaders.readNullableString(reader);
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+
+		reader.endObject();
+		return ret;
+	}
+
 	@Override
 	public int getSchemaVersion() {
 		return 0;
@@ -242,6 +319,46 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return server;
 		}
 
+		static Mixins read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			} else if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new JsonParseException("Expected mixins to be an object.");
+			}
+
+			Mixins mixins = new Mixins();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+
+				switch (name) {
+					case "client":
+						mixins.client = readStringArray(reader, name);
+						break;
+					case "common":
+						mixins.common = readStringArray(reader, name);
+						break;
+					case "server":
+						mixins.server = readStringArray(reader, name);
+						break;
+					default:
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			return mixins;
+		}
+
+		private static String[] readStringArray(JsonReader reader, String name) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return new String[0];
+			}
+
+			return JsonReaders.readStringOrArray(reader, () -> new JsonParseException("Expected " + name + " to be a string or an array of strings")).toArray(new String[0]);
+		}
+
 		public static class Deserializer implements JsonDeserializer<Mixins> {
 			@Override
 			public Mixins deserialize(JsonElement element, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -287,6 +404,36 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			super(map);
 		}
 
+		static Links read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			Map<String, String> map = new HashMap<>();
+
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					String key = reader.nextName();
+
+					if (key.equals("homepage") || key.equals("issues") || key.equals("sources")) {
+						map.put(key, JsonReaders.readAsString(reader));
+					} else {
+						reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+			} else if (JsonReaders.isPrimitive(reader)) {
+				map.put("homepage", JsonReaders.readAsString(reader));
+			} else {
+				throw new JsonParseException("Expected links to be an object or string");
+			}
+
+			return new Links(map);
+		}
+
 		public static class Deserializer implements JsonDeserializer<Links> {
 			@Override
 			public Links deserialize(JsonElement element, Type resultType, JsonDeserializationContext context) throws JsonParseException {
@@ -384,6 +531,47 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return "[" + Joiner.on(", ").join(versionMatchers) + "]";
 		}
 
+		static Dependency read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				String[] versionMatchers = null;
+				Side side = Side.UNIVERSAL;
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "side":
+							side = Side.read(reader);
+							break;
+						case "version":
+							versionMatchers = readVersionMatchers(reader);
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+
+				if (versionMatchers == null) {
+					throw new JsonParseException("Missing version element");
+				}
+
+				return new Dependency(versionMatchers, side);
+			} else if (JsonReaders.isPrimitive(reader) || reader.peek() == JsonToken.BEGIN_ARRAY) {
+				return new Dependency(readVersionMatchers(reader), Side.UNIVERSAL);
+			}
+
+			throw new JsonParseException("Expected dependency to be an object");
+		}
+
+		private static String[] readVersionMatchers(JsonReader reader) throws IOException {
+			return JsonReaders.readStringOrArray(reader, () -> new JsonParseException("Expected version to be a string or array")).toArray(new String[0]);
+		}
+
 		public static class Deserializer implements JsonDeserializer<Dependency> {
 			private String[] deserializeVersionMatchers(JsonElement versionEl) {
 				String[] versionMatchers;
@@ -460,34 +648,73 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return contact;
 		}
 
-		public static class Deserializer implements JsonDeserializer<Person> {
+		private static final Pattern WEBSITE_PATTERN = Pattern.compile("\\((.+)\\)");
+		private static final Pattern EMAIL_PATTERN = Pattern.compile("<(.+)>");
 
-			private static final Pattern WEBSITE_PATTERN = Pattern.compile("\\((.+)\\)");
-			private static final Pattern EMAIL_PATTERN = Pattern.compile("<(.+)>");
+		/**
+		 * Parse a person in "Name &lt;email&gt; (website)" form.
+		 */
+		static Person fromString(String person) {
+			List<String> parts = Lists.newArrayList(person.split(" "));
 
-			@Override
-			public Person deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-				if (element.isJsonPrimitive()) {
-					String person = element.getAsString();
-					List<String> parts = Lists.newArrayList(person.split(" "));
+			String name, email = "", website = "";
 
-					String name, email = "", website = "";
+			Matcher websiteMatcher = WEBSITE_PATTERN.matcher(parts.get(parts.size() - 1));
+			if (websiteMatcher.matches()) {
+				website = websiteMatcher.group(1);
+				parts.remove(parts.size() - 1);
+			}
 
-					Matcher websiteMatcher = WEBSITE_PATTERN.matcher(parts.get(parts.size() - 1));
-					if (websiteMatcher.matches()) {
-						website = websiteMatcher.group(1);
-						parts.remove(parts.size() - 1);
-					}
+			Matcher emailMatcher = EMAIL_PATTERN.matcher(parts.get(parts.size() - 1));
+			if (emailMatcher.matches()) {
+				email = emailMatcher.group(1);
+				parts.remove(parts.size() - 1);
+			}
+
+			name = String.join(" ", parts);
 
-					Matcher emailMatcher = EMAIL_PATTERN.matcher(parts.get(parts.size() - 1));
-					if (emailMatcher.matches()) {
-						email = emailMatcher.group(1);
-						parts.remove(parts.size() - 1);
+			return new Person(name, email, website);
+		}
+
+		static Person read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			if (JsonReaders.isPrimitive(reader)) {
+				return fromString(JsonReaders.readAsString(reader));
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				String name = "", email = "", website = "";
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "name":
+							name = JsonReaders.readAsString(reader);
+							break;
+						case "email":
+							email = JsonReaders.readAsString(reader);
+							break;
+						case "website":
+							website = JsonReaders.readAsString(reader);
+							break;
+						default:
+							reader.skipValue();
 					}
+				}
 
-					name = String.join(" ", parts);
+				reader.endObject();
+				return new Person(name, email, website);
+			}
 
-					return new Person(name, email, website);
+			throw new RuntimeException("Expected person to be a string");
+		}
+
+		public static class Deserializer implements JsonDeserializer<Person> {
+			@Override
+			public Person deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
+				if (element.isJsonPrimitive()) {
+					return fromString(element.getAsString());
 				} else if (element.isJsonObject()) {
 					JsonObject object = element.getAsJsonObject();
 					String name = object.has("name") ? object.get("name").getAsString() : "";
@@ -522,6 +749,14 @@ public class ModMetadataV0 implements LoaderModMetadata {
 			return this == SERVER;
 		}
 
+		static Side read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			return valueOf(JsonReaders.readAsString(reader).toUpperCase(Locale.ROOT));
+		}
+
 		public static class Deserializer implements JsonDeserializer<Side> {
 			@Override
 			public Side deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
@@ -19,14 +19,20 @@ package net.fabricmc.loader.metadata;
 import com.google.common.base.Joiner;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.loader.api.Version;
 import net.fabricmc.loader.api.metadata.ContactInformation;
 import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.util.version.SemanticVersionImpl;
+import net.fabricmc.loader.util.version.SemanticVersionPredicateParser;
+import net.fabricmc.loader.util.version.VersionIntervalSet;
 import net.fabricmc.loader.util.version.VersionParsingException;
 import net.fabricmc.loader.util.version.VersionPredicateParser;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -71,6 +77,88 @@ public class ModMetadataV1 implements LoaderModMetadata {
 	@Deprecated
 	private DependencyContainer requires = new DependencyContainer();
 
+	/**
+	 * Read the metadata directly from a JSON stream, with the same results as binding it through Gson.
+	 */
+	@SuppressWarnings("deprecation")
+	static ModMetadataV1 read(JsonReader reader) throws IOException {
+		ModMetadataV1 ret = new ModMetadataV1();
+		reader.beginObject();
+
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "id":
+					ret.id = JsonReaders.readNullableString(reader);
+					break;
+				case "version":
+					ret.version = JsonReaders.readVersion(reader);
+					break;
+				case "environment":
+					ret.environment = Environment.read(reader);
+					break;
+				case "entrypoints":
+					ret.entrypoints = EntrypointContainer.read(reader);
+					break;
+				case "jars":
+					ret.jars = JsonReaders.readArray(reader, JarEntry[]::new, JarEntry::read);
+					break;
+				case "mixins":
+					ret.mixins = JsonReaders.readArray(reader, MixinEntry[]::new, MixinEntry::read);
+					break;
+				case "depends":
+					ret.depends = DependencyContainer.read(reader);
+					break;
+				case "recommends":
+					ret.recommends = DependencyContainer.read(reader);
+					break;
+				case "suggests":
+					ret.suggests = DependencyContainer.read(reader);
+					break;
+				case "conflicts":
+					ret.conflicts = DependencyContainer.read(reader);
+					break;
+				case "breaks":
+					ret.breaks = DependencyContainer.read(reader);
+					break;
+				case "name":
+					ret.name = JsonReaders.readNullableString(reader);
+					break;
+				case "description":
+					ret.description = JsonReaders.readNullableString(reader);
+					break;
+				case "authors":
+					ret.authors = JsonReaders.readArray(reader, Person[]::new, Person::read);
+					break;
+				case "contributors":
+					ret.contributors = JsonReaders.readArray(reader, Person[]::new, Person::read);
+					break;
+				case "contact":
+					ret.contact = JsonReaders.readMap(reader, LinkedHashMap::new, JsonReaders::readNullableString);
+					break;
+				case "license":
+					ret.license = LicenseEntry.read(reader);
+					break;
+				case "icon":
+					ret.icon = IconEntry.read(reader);
+					break;
+				case "languageAdapters":
+					ret.languageAdapters = JsonReaders.readMap(reader, LinkedHashMap::new, JsonReaders::readNullableString);
+					break;
+				case "custom":
+					ret.custom = JsonReaders.readMap(reader, LinkedHashMap::new, JsonReaders::readElement);
+					break;
+				case "requires":
+					ret.requires = DependencyContainer.read(reader);
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+
+		reader.endObject();
+		return ret;
+	}
+
 	@Override
 	public String getType() {
 		return "fabric";
@@ -168,20 +256,11 @@ public class ModMetadataV1 implements LoaderModMetadata {
 
 	@Override
 	public Optional<String> getIconPath(int size) {
-		if (icon.iconMap != null && !icon.iconMap.isEmpty()) {
-			int iconValue = -1;
-
-			for (int i : icon.iconMap.keySet()) {
-				iconValue = i;
-				if (iconValue >= size) {
-					break;
-				}
-			}
+		return icon.getPath(size);
+	}
 
-			return Optional.of(icon.iconMap.get(iconValue));
-		} else {
-			return Optional.ofNullable(icon.icon);
-		}
+	IconEntry getIconEntry() {
+		return icon;
 	}
 
 	@Override
@@ -194,6 +273,10 @@ public class ModMetadataV1 implements LoaderModMetadata {
 		return custom.get(key);
 	}
 
+	Map<String, JsonElement> getCustomElements() {
+		return custom;
+	}
+
 	@Override
 	public Version getVersion() {
 		return version;
@@ -228,6 +311,121 @@ public class ModMetadataV1 implements LoaderModMetadata {
 		private final Map<String, List<String>> matcherStrings = new HashMap<>();
 		private final List<ModDependency> dependencies = new ArrayList<>();
 
+		private static ModDependency createDependency(String modId, List<String> matcherStringList) {
+			// the same few IDs are depended on by nearly every mod
+			String id = modId.intern();
+			String depAsStr;
+			{
+				StringBuilder builder = new StringBuilder("{");
+				builder.append(id);
+				builder.append(" @ [");
+				for (int i = 0; i < matcherStringList.size(); i++) {
+					if (i > 0) {
+						builder.append(" || ");
+					}
+					builder.append(matcherStringList.get(i));
+				}
+				builder.append("]}");
+
+				depAsStr = builder.toString();
+			}
+
+			return new VersionRangeDependency() {
+				private volatile VersionIntervalSet intervals;
+				private boolean intervalsExact;
+
+				@Override
+				public String getModId() {
+					return id;
+				}
+
+				@Override
+				public VersionIntervalSet getVersionIntervals() {
+					VersionIntervalSet ret = computeIntervals();
+					return intervalsExact ? ret : null;
+				}
+
+				private VersionIntervalSet computeIntervals() {
+					if (intervals == null) {
+						VersionIntervalSet ret = VersionIntervalSet.EMPTY;
+						boolean exact = true;
+
+						// matches() stops at the first unparseable alternative, so the range does too
+						for (String s : matcherStringList) {
+							try {
+								ret = ret.union(SemanticVersionPredicateParser.createIntervals(s));
+							} catch (VersionParsingException e) {
+								exact = false;
+								break;
+							}
+						}
+
+						intervalsExact = exact;
+						intervals = ret;
+					}
+
+					return intervals;
+				}
+
+				@Override
+				public boolean matches(Version version) {
+					if (version instanceof SemanticVersionImpl && !((SemanticVersionImpl) version).hasWildcard()) {
+						VersionIntervalSet intervals = computeIntervals();
+
+						if (intervalsExact) {
+							return intervals.contains((SemanticVersionImpl) version);
+						}
+					}
+
+					for (String s : matcherStringList) {
+						try {
+							if (VersionPredicateParser.matches(version, s)) {
+								return true;
+							}
+						} catch (VersionParsingException e) {
+							e.printStackTrace();
+							return false;
+						}
+					}
+
+					return false;
+				}
+
+				@Override
+				public String toString() {
+					return depAsStr;
+				}
+			};
+		}
+
+		static DependencyContainer read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			} else if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new RuntimeException("Dependency container must be an object!");
+			}
+
+			// duplicate keys collapse to the last value, as they do in a JsonObject
+			Map<String, List<String>> matcherStringMap = new LinkedHashMap<>();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				String id = reader.nextName();
+				matcherStringMap.put(id, JsonReaders.readStringOrArray(reader, () -> new RuntimeException("Dependency version range must be a string or string array!")));
+			}
+
+			reader.endObject();
+
+			DependencyContainer ctr = new DependencyContainer();
+
+			for (Map.Entry<String, List<String>> entry : matcherStringMap.entrySet()) {
+				ctr.matcherStrings.put(entry.getKey(), entry.getValue());
+				ctr.dependencies.add(createDependency(entry.getKey(), entry.getValue()));
+			}
+
+			return ctr;
+		}
+
 		public static class Deserializer implements JsonDeserializer<DependencyContainer> {
 			@Override
 			public DependencyContainer deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -252,50 +450,7 @@ public class ModMetadataV1 implements LoaderModMetadata {
 
 					String id = entry.getKey();
 					ctr.matcherStrings.put(id, matcherStringList);
-
-					String depAsStr;
-					{
-						StringBuilder builder = new StringBuilder("{");
-						builder.append(id);
-						builder.append(" @ [");
-						for (int i = 0; i < matcherStringList.size(); i++) {
-							if (i > 0) {
-								builder.append(" || ");
-							}
-							builder.append(matcherStringList.get(i));
-						}
-						builder.append("]}");
-
-						depAsStr = builder.toString();
-					}
-
-					ctr.dependencies.add(new ModDependency() {
-						@Override
-						public String getModId() {
-							return id;
-						}
-
-						@Override
-						public boolean matches(Version version) {
-							for (String s : matcherStringList) {
-								try {
-									if (VersionPredicateParser.matches(version, s)) {
-										return true;
-									}
-								} catch (VersionParsingException e) {
-									e.printStackTrace();
-									return false;
-								}
-							}
-
-							return false;
-						}
-
-						@Override
-						public String toString() {
-							return depAsStr;
-						}
-					});
+					ctr.dependencies.add(createDependency(id, matcherStringList));
 				}
 
 				return ctr;
@@ -317,6 +472,45 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			return contact;
 		}
 
+		static Person read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			Person person = new Person();
+
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				boolean hasName = false;
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "name":
+							person.name = JsonReaders.readAsString(reader);
+							hasName = true;
+							break;
+						case "contact":
+							person.contact = new MapBackedContactInformation(JsonReaders.readMap(reader, HashMap::new, JsonReaders::readNullableString));
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+
+				if (!hasName) {
+					throw new JsonParseException("Person object must have a 'name' field!");
+				}
+			} else if (JsonReaders.isPrimitive(reader)) {
+				person.name = JsonReaders.readAsString(reader);
+			} else {
+				throw new JsonParseException("Person type must be an object or string!");
+			}
+
+			return person;
+		}
+
 		public static class Deserializer implements JsonDeserializer<Person> {
 			@Override
 			public Person deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -353,6 +547,33 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			return file;
 		}
 
+		static JarEntry read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			} else if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new JsonParseException("Invalid type for JAR entry!");
+			}
+
+			JarEntry entry = new JarEntry();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				if (reader.nextName().equals("file")) {
+					entry.file = JsonReaders.readAsString(reader);
+				} else {
+					reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+
+			if (entry.file == null) {
+				throw new JsonParseException("Missing mandatory key 'file' in JAR entry!");
+			}
+
+			return entry;
+		}
+
 		public static class Deserializer implements JsonDeserializer<JarEntry> {
 			@Override
 			public JarEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -377,6 +598,75 @@ public class ModMetadataV1 implements LoaderModMetadata {
 		private String icon;
 		private SortedMap<Integer, String> iconMap;
 
+		Optional<String> getPath(int size) {
+			if (iconMap != null && !iconMap.isEmpty()) {
+				int iconValue = -1;
+
+				for (int i : iconMap.keySet()) {
+					iconValue = i;
+					if (iconValue >= size) {
+						break;
+					}
+				}
+
+				return Optional.of(iconMap.get(iconValue));
+			} else {
+				return Optional.ofNullable(icon);
+			}
+		}
+
+		static IconEntry read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			IconEntry entry = new IconEntry();
+
+			if (JsonReaders.isPrimitive(reader)) {
+				entry.icon = JsonReaders.readAsString(reader);
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				// collapse duplicate keys first, sizes like "16" and "016" must still be applied in key order
+				Map<String, String> icons = new LinkedHashMap<>();
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					String key = reader.nextName();
+
+					if (!JsonReaders.isPrimitive(reader)) {
+						throw new JsonParseException("Icon value must be a string!");
+					}
+
+					icons.put(key, JsonReaders.readAsString(reader));
+				}
+
+				reader.endObject();
+				entry.iconMap = new TreeMap<>(Comparator.naturalOrder());
+
+				for (Map.Entry<String, String> e : icons.entrySet()) {
+					int size;
+					try {
+						size = Integer.parseInt(e.getKey());
+					} catch (NumberFormatException ex) {
+						throw new JsonParseException("Could not parse icon size '" + e.getKey() + "'!", ex);
+					}
+
+					if (size < 1) {
+						throw new JsonParseException("Size must be positive!");
+					}
+
+					entry.iconMap.put(size, e.getValue());
+				}
+
+				if (entry.iconMap.isEmpty()) {
+					throw new JsonParseException("Icon object must not be empty!");
+				}
+			} else {
+				throw new JsonParseException("Icon entry must be an object or string!");
+			}
+
+			return entry;
+		}
+
 		public static class Deserializer implements JsonDeserializer<IconEntry> {
 			@Override
 			public IconEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -437,6 +727,75 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			public String getValue() {
 				return value;
 			}
+
+			static Metadata read(JsonReader reader) throws IOException {
+				if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+					return new Metadata("default", JsonReaders.readAsString(reader));
+				}
+
+				String adapter = "default";
+				String value = null;
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "adapter":
+							adapter = JsonReaders.readAsString(reader);
+							break;
+						case "value":
+							value = JsonReaders.readAsString(reader);
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+
+				if (value == null) {
+					throw new JsonParseException("Missing mandatory key 'value' in entrypoint!");
+				}
+
+				return new Metadata(adapter, value);
+			}
+		}
+
+		static EntrypointContainer read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			} else if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+				throw new JsonParseException("Entrypoints must be an object!");
+			}
+
+			EntrypointContainer ctr = new EntrypointContainer();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+
+				if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+					throw new JsonParseException("Entrypoint list must be an array!");
+				}
+
+				List<EntrypointMetadata> metadata = new ArrayList<>();
+				reader.beginArray();
+
+				while (reader.hasNext()) {
+					metadata.add(Metadata.read(reader));
+				}
+
+				reader.endArray();
+
+				// duplicate keys collapse to the last list, as they do in a JsonObject
+				if (!metadata.isEmpty()) {
+					ctr.metadataMap.put(key, metadata);
+				} else {
+					ctr.metadataMap.remove(key);
+				}
+			}
+
+			reader.endObject();
+			return ctr;
 		}
 
 		public static class Deserializer implements JsonDeserializer<EntrypointContainer> {
@@ -483,6 +842,45 @@ public class ModMetadataV1 implements LoaderModMetadata {
 		private String config;
 		private Environment environment = Environment.UNIVERSAL;
 
+		static MixinEntry read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			MixinEntry entry = new MixinEntry();
+
+			if (JsonReaders.isPrimitive(reader)) {
+				entry.config = JsonReaders.readAsString(reader);
+			} else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				boolean hasConfig = false;
+				reader.beginObject();
+
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "config":
+							entry.config = JsonReaders.readAsString(reader);
+							hasConfig = true;
+							break;
+						case "environment":
+							entry.environment = Environment.read(reader);
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+
+				reader.endObject();
+
+				if (!hasConfig) {
+					throw new JsonParseException("Missing mandatory key 'config' in mixin entry!");
+				}
+			} else {
+				throw new JsonParseException("Invalid type for mixin entry!");
+			}
+
+			return entry;
+		}
+
 		public static class Deserializer implements JsonDeserializer<MixinEntry> {
 			@Override
 			public MixinEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -526,19 +924,31 @@ public class ModMetadataV1 implements LoaderModMetadata {
 			}
 		}
 
+		static Environment fromString(String name) {
+			String s = name.toLowerCase(Locale.ROOT);
+			if (s.isEmpty() || s.equals("*")) {
+				return UNIVERSAL;
+			} else if (s.equals("client")) {
+				return CLIENT;
+			} else if (s.equals("server")) {
+				return SERVER;
+			} else {
+				throw new JsonParseException("Invalid environment type: " + s + "!");
+			}
+		}
+
+		static Environment read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			return fromString(JsonReaders.readAsString(reader));
+		}
+
 		public static class Deserializer implements JsonDeserializer<Environment> {
 			@Override
 			public Environment deserialize(JsonElement element, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-				String s = element.getAsString().toLowerCase(Locale.ROOT);
-				if (s.isEmpty() || s.equals("*")) {
-					return UNIVERSAL;
-				} else if (s.equals("client")) {
-					return CLIENT;
-				} else if (s.equals("server")) {
-					return SERVER;
-				} else {
-					throw new JsonParseException("Invalid environment type: " + s + "!");
-				}
+				return fromString(element.getAsString());
 			}
 		}
 	}
@@ -546,6 +956,30 @@ public class ModMetadataV1 implements LoaderModMetadata {
 	public static class LicenseEntry {
 		private final List<String> entries = new ArrayList<>();
 
+		static LicenseEntry read(JsonReader reader) throws IOException {
+			if (JsonReaders.readNull(reader)) {
+				return null;
+			}
+
+			LicenseEntry entry = new LicenseEntry();
+
+			if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+				reader.beginArray();
+
+				while (reader.hasNext()) {
+					entry.entries.add(JsonReaders.readAsString(reader));
+				}
+
+				reader.endArray();
+			} else if (JsonReaders.isPrimitive(reader)) {
+				entry.entries.add(JsonReaders.readAsString(reader));
+			} else {
+				throw new JsonParseException("License must be a string or array of strings!");
+			}
+
+			return entry;
+		}
+
 		public static class Deserializer implements JsonDeserializer<LicenseEntry> {
 			@Override
 			public LicenseEntry deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.metadata;
+
+import net.fabricmc.loader.api.metadata.ModDependency;
+import net.fabricmc.loader.util.version.VersionIntervalSet;
+
+/**
+ * A dependency whose version ranges can be represented as a set of semantic version intervals,
+ * allowing them to be intersected and checked for emptiness.
+ */
+public interface VersionRangeDependency extends ModDependency {
+	/**
+	 * Get the semantic versions accepted by this dependency. Non-semantic versions
+	 * are not covered and still have to be checked with {@link #matches}.
+	 *
+	 * @return The accepted semantic versions, or null if the ranges can't be represented exactly.
+	 */
+	VersionIntervalSet getVersionIntervals();
+}
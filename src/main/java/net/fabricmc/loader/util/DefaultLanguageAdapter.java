@@ -20,15 +20,26 @@ import net.fabricmc.loader.api.LanguageAdapter;
 import net.fabricmc.loader.api.LanguageAdapterException;
 import net.fabricmc.loader.api.ModContainer;
 import net.fabricmc.loader.launch.common.FabricLauncherBase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 
-import java.lang.invoke.MethodHandle;
+import java.lang.invoke.*;
 import java.lang.reflect.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public final class DefaultLanguageAdapter implements LanguageAdapter {
 	public static final DefaultLanguageAdapter INSTANCE = new DefaultLanguageAdapter();
 
+	private static final Logger LOGGER = LogManager.getFormatterLogger("Fabric|LanguageAdapter");
+	private static final String LOOKUP_HELPER_NAME = "FabricLookupHelper$$";
+	private static final String LOOKUP_DESC = "Ljava/lang/invoke/MethodHandles$Lookup;";
+	// per class loader, a method returning a full privilege lookup on any class of that loader's unnamed module
+	private static final Map<ClassLoader, Method> lookupHelpers = new HashMap<>();
+	private static volatile boolean loggedFallback;
+
 	private DefaultLanguageAdapter() {
 
 	}
@@ -114,6 +125,11 @@ public final class DefaultLanguageAdapter implements LanguageAdapter {
 			}
 
 			final Object targetObject = object;
+			T direct = createDirect(c, targetMethod, targetObject, type);
+
+			if (direct != null) {
+				return direct;
+			}
 
 			//noinspection unchecked
 			return (T) Proxy.newProxyInstance(FabricLauncherBase.getLauncher().getTargetClassLoader(), new Class[] { type }, new InvocationHandler() {
@@ -124,4 +140,134 @@ public final class DefaultLanguageAdapter implements LanguageAdapter {
 			});
 		}
 	}
+
+	/**
+	 * Bind a method to a functional interface through {@link LambdaMetafactory}, so calls through the
+	 * interface dispatch directly instead of going through a proxy and reflection.
+	 *
+	 * @return The interface implementation, or null if the method cannot be bound this way.
+	 */
+	private static <T> T createDirect(Class<?> owner, Method targetMethod, Object targetObject, Class<T> type) throws LanguageAdapterException {
+		Method interfaceMethod = getFunctionalMethod(type);
+		if (interfaceMethod == null) {
+			return null;
+		}
+
+		MethodHandle factory;
+
+		try {
+			MethodHandles.Lookup lookup = privateLookup(owner);
+			MethodHandle implementation = lookup.unreflect(targetMethod);
+			MethodType interfaceType = MethodType.methodType(interfaceMethod.getReturnType(), interfaceMethod.getParameterTypes());
+			MethodType factoryType = targetObject == null ? MethodType.methodType(type) : MethodType.methodType(type, owner);
+
+			factory = LambdaMetafactory.metafactory(lookup, interfaceMethod.getName(), factoryType, interfaceType, implementation, interfaceType).getTarget();
+		} catch (LambdaConversionException | ReflectiveOperationException e) {
+			// signature mismatch, inaccessible lookup, ...: let the caller use the reflective proxy
+			if (!loggedFallback) {
+				loggedFallback = true;
+				LOGGER.debug("Binding %s directly failed, using a proxy for such entrypoints: %s", targetMethod, e.toString());
+			}
+
+			return null;
+		}
+
+		try {
+			return type.cast(targetObject == null ? factory.invoke() : factory.invoke(targetObject));
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new LanguageAdapterException(t);
+		}
+	}
+
+	private static Method getFunctionalMethod(Class<?> type) {
+		Method ret = null;
+
+		for (Method m : type.getMethods()) {
+			if (!Modifier.isAbstract(m.getModifiers()) || isObjectMethod(m)) {
+				continue;
+			}
+
+			if (ret != null) {
+				return null;
+			}
+
+			ret = m;
+		}
+
+		return ret;
+	}
+
+	private static boolean isObjectMethod(Method m) {
+		try {
+			Object.class.getMethod(m.getName(), m.getParameterTypes());
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private static MethodHandles.Lookup privateLookup(Class<?> owner) throws ReflectiveOperationException {
+		Method privateLookupIn;
+
+		try {
+			// Java 9+
+			privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+		} catch (NoSuchMethodException e) {
+			// Java 8
+			Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+			constructor.setAccessible(true);
+			return constructor.newInstance(owner);
+		}
+
+		MethodHandles.Lookup lookup = (MethodHandles.Lookup) privateLookupIn.invoke(null, owner, MethodHandles.lookup());
+		int moduleMode = MethodHandles.Lookup.class.getField("MODULE").getInt(null);
+
+		if ((lookup.lookupModes() & moduleMode) != 0) {
+			return lookup;
+		}
+
+		// Java 14+ drops MODULE access when crossing into another module, such as the unnamed module of the
+		// mod class loader, and LambdaMetafactory rejects such a lookup. From within that module it is kept.
+		return (MethodHandles.Lookup) getLookupHelper(owner, lookup).invoke(null, owner);
+	}
+
+	private static Method getLookupHelper(Class<?> owner, MethodHandles.Lookup packageLookup) throws ReflectiveOperationException {
+		synchronized (lookupHelpers) {
+			Method helper = lookupHelpers.get(owner.getClassLoader());
+
+			if (helper == null) {
+				// Lookup.defineClass can only define classes in the package of the lookup class
+				String packagePrefix = owner.getName().substring(0, owner.getName().lastIndexOf('.') + 1);
+				byte[] bytes = createLookupHelper((packagePrefix + LOOKUP_HELPER_NAME).replace('.', '/'));
+				Class<?> helperClass = (Class<?>) MethodHandles.Lookup.class.getMethod("defineClass", byte[].class).invoke(packageLookup, (Object) bytes);
+				helper = helperClass.getMethod("lookup", Class.class);
+				lookupHelpers.put(owner.getClassLoader(), helper);
+			}
+
+			return helper;
+		}
+	}
+
+	/**
+	 * Create a class with a single method, {@code public static Lookup lookup(Class<?> c)}, returning
+	 * {@code MethodHandles.privateLookupIn(c, MethodHandles.lookup())}.
+	 */
+	private static byte[] createLookupHelper(String name) {
+		ClassWriter writer = new ClassWriter(0);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, name, null, "java/lang/Object", null);
+
+		MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "lookup", "(Ljava/lang/Class;)" + LOOKUP_DESC, null, null);
+		method.visitCode();
+		method.visitVarInsn(Opcodes.ALOAD, 0);
+		method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()" + LOOKUP_DESC, false);
+		method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "privateLookupIn", "(Ljava/lang/Class;" + LOOKUP_DESC + ")" + LOOKUP_DESC, false);
+		method.visitInsn(Opcodes.ARETURN);
+		method.visitMaxs(2, 1);
+		method.visitEnd();
+
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
 }
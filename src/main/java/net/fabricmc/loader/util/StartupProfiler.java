@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Records wall time and allocation of the individual launch phases, and writes
+ * them to .fabric/startup-profile.json in the game directory. Times are relative
+ * to the loader's first use of the profiler.
+ *
+ * Allocation is measured for the thread running a phase only; work the phase
+ * hands off to other threads (such as mod discovery) is not included.
+ */
+public final class StartupProfiler {
+	private static final Logger LOGGER = LogManager.getFormatterLogger("Fabric|Profiler");
+	private static final long START_TIME = System.nanoTime();
+	private static final LongSupplier ALLOCATION_COUNTER = createAllocationCounter();
+
+	private static final List<Phase> phases = new ArrayList<>();
+	private static int depth;
+
+	public static final class Phase implements AutoCloseable {
+		private final String name;
+		private final int depth;
+		private final long startTime;
+		private final long startAllocation;
+		private long endTime = -1;
+		private long endAllocation;
+
+		private Phase(String name, int depth) {
+			this.name = name;
+			this.depth = depth;
+			this.startAllocation = ALLOCATION_COUNTER.getAsLong();
+			this.startTime = System.nanoTime();
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return The phase's wall time in nanoseconds, or -1 if it has not finished yet.
+		 */
+		public long getDuration() {
+			return endTime >= 0 ? endTime - startTime : -1;
+		}
+
+		/**
+		 * @return The bytes allocated by the phase's thread, or -1 if unknown.
+		 */
+		public long getAllocatedBytes() {
+			return endTime >= 0 && startAllocation >= 0 ? endAllocation - startAllocation : -1;
+		}
+
+		@Override
+		public void close() {
+			if (endTime >= 0) {
+				return;
+			}
+
+			endTime = System.nanoTime();
+			endAllocation = ALLOCATION_COUNTER.getAsLong();
+
+			synchronized (phases) {
+				StartupProfiler.depth--;
+			}
+		}
+	}
+
+	private StartupProfiler() {
+
+	}
+
+	private static LongSupplier createAllocationCounter() {
+		try {
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+
+				if (sunBean.isThreadAllocatedMemorySupported()) {
+					sunBean.setThreadAllocatedMemoryEnabled(true);
+					return () -> sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+				}
+			}
+		} catch (Throwable t) {
+			// not a HotSpot-compatible JVM
+		}
+
+		return () -> -1;
+	}
+
+	/**
+	 * Start timing a launch phase. Phases started before another one is closed
+	 * are reported as nested within it.
+	 *
+	 * @param name The phase name.
+	 * @return The phase, to be closed once it is finished.
+	 */
+	public static Phase begin(String name) {
+		synchronized (phases) {
+			Phase phase = new Phase(name, depth++);
+			phases.add(phase);
+			return phase;
+		}
+	}
+
+	public static List<Phase> getPhases() {
+		synchronized (phases) {
+			return Collections.unmodifiableList(new ArrayList<>(phases));
+		}
+	}
+
+	public static void writeReport(Path gameDir) {
+		Path reportFile = gameDir.resolve(".fabric").resolve("startup-profile.json");
+		long totalTime = System.nanoTime() - START_TIME;
+
+		try {
+			Files.createDirectories(reportFile.getParent());
+
+			try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+				JsonWriter json = new JsonWriter(writer)) {
+				json.setIndent("\t");
+				json.beginObject();
+				json.name("totalMs").value(totalTime / 1e6);
+				json.name("jvmUptimeMs").value(ManagementFactory.getRuntimeMXBean().getUptime());
+				json.name("phases").beginArray();
+
+				for (Phase phase : getPhases()) {
+					json.beginObject();
+					json.name("name").value(phase.name);
+					json.name("depth").value(phase.depth);
+					json.name("startMs").value((phase.startTime - START_TIME) / 1e6);
+					json.name("durationMs").value(phase.getDuration() >= 0 ? phase.getDuration() / 1e6 : -1);
+					json.name("allocatedBytes").value(phase.getAllocatedBytes());
+					json.endObject();
+				}
+
+				json.endArray();
+				json.endObject();
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write startup profile to " + reportFile, e);
+			return;
+		}
+
+		LOGGER.debug("Startup took %.1f ms, profile written to %s", totalTime / 1e6, reportFile);
+	}
+}
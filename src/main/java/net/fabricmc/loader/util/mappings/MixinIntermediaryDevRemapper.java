@@ -21,13 +21,57 @@ import net.fabricmc.mappings.helpers.mixin.MixinMappingsRemapper;
 import org.spongepowered.asm.mixin.transformer.ClassInfo;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
+	private static final String[] NO_CLASSES = new String[0];
+
 	private final Set<String> allPossibleClassNames;
-	private final Map<String, Set<String>> nameDescFieldLookup, nameDescMethodLookup;
+	private final Map<String, Map<String, Set<String>>> nameDescFieldLookup, nameDescMethodLookup;
+
+	// Results are memoized, as refmap remapping asks for the same members over and over.
+	private final Map<MemberKey, String> fieldCache = new ConcurrentHashMap<>();
+	private final Map<MemberKey, String> methodCache = new ConcurrentHashMap<>();
+	private final Map<String, String> unmapDescCache = new ConcurrentHashMap<>();
+	// Unmapped owners to search, in lookup order, for members inherited by a given class.
+	// Only hierarchies Mixin could fully resolve are stored, the rest are looked up again.
+	private final Map<String, String[]> fieldHierarchyCache = new ConcurrentHashMap<>();
+	private final Map<String, String[]> methodHierarchyCache = new ConcurrentHashMap<>();
+
+	private static final class MemberKey {
+		private final String owner, name, desc;
+		private final int hash;
+
+		private MemberKey(String owner, String name, String desc) {
+			this.owner = owner;
+			this.name = name;
+			this.desc = desc;
+			this.hash = (owner.hashCode() * 31 + name.hashCode()) * 31 + desc.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof MemberKey)) {
+				return false;
+			}
 
-	private static String getNameDescKey(EntryTriple triple) {
-		return triple.getName() + ";;" + triple.getDesc();
+			MemberKey other = (MemberKey) o;
+			return hash == other.hash && owner.equals(other.owner) && name.equals(other.name) && desc.equals(other.desc);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static void addNameDesc(Map<String, Map<String, Set<String>>> lookup, EntryTriple tripleFrom, EntryTriple tripleTo) {
+		lookup.computeIfAbsent(tripleFrom.getName(), (a) -> new HashMap<>()).computeIfAbsent(tripleFrom.getDesc(), (a) -> new HashSet<>()).add(tripleTo.getName());
+	}
+
+	private static Set<String> getNameDesc(Map<String, Map<String, Set<String>>> lookup, String name, String desc) {
+		Map<String, Set<String>> descMap = lookup.get(name);
+		return descMap != null ? descMap.get(desc) : null;
 	}
 
 	public MixinIntermediaryDevRemapper(Mappings mappings, String from, String to) {
@@ -40,17 +84,11 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 		allPossibleClassNames = new HashSet<>();
 
 		for (FieldEntry entry : mappings.getFieldEntries()) {
-			EntryTriple tripleFrom = entry.get(from);
-			EntryTriple tripleTo = entry.get(to);
-
-			nameDescFieldLookup.computeIfAbsent(getNameDescKey(tripleFrom), (a) -> new HashSet<>()).add(tripleTo.getName());
+			addNameDesc(nameDescFieldLookup, entry.get(from), entry.get(to));
 		}
 
 		for (MethodEntry entry : mappings.getMethodEntries()) {
-			EntryTriple tripleFrom = entry.get(from);
-			EntryTriple tripleTo = entry.get(to);
-
-			nameDescMethodLookup.computeIfAbsent(getNameDescKey(tripleFrom), (a) -> new HashSet<>()).add(tripleTo.getName());
+			addNameDesc(nameDescMethodLookup, entry.get(from), entry.get(to));
 		}
 
 		for (ClassEntry entry : mappings.getClassEntries()) {
@@ -72,11 +110,22 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 		throw new RuntimeException(builder.toString());
 	}
 
+	private String unmapDescCached(String desc) {
+		String ret = unmapDescCache.get(desc);
+
+		if (ret == null) {
+			ret = unmapDesc(desc);
+			unmapDescCache.put(desc, ret);
+		}
+
+		return ret;
+	}
+
 	private String mapMethodNameInner(String owner, String name, String desc) {
 		String result = super.mapMethodName(owner, name, desc);
 		if (result.equals(name)) {
 			String otherClass = unmap(owner);
-			return super.mapMethodName(otherClass, name, unmapDesc(desc));
+			return super.mapMethodName(otherClass, name, unmapDescCached(desc));
 		} else {
 			return result;
 		}
@@ -86,17 +135,116 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 		String result = super.mapFieldName(owner, name, desc);
 		if (result.equals(name)) {
 			String otherClass = unmap(owner);
-			return super.mapFieldName(otherClass, name, unmapDesc(desc));
+			return super.mapFieldName(otherClass, name, unmapDescCached(desc));
 		} else {
 			return result;
 		}
 	}
 
+	private String[] getMethodHierarchy(String owner) {
+		String[] ret = methodHierarchyCache.get(owner);
+		if (ret != null) {
+			return ret;
+		}
+
+		Set<String> owners = new LinkedHashSet<>();
+		Queue<ClassInfo> classInfos = new ArrayDeque<>();
+		ClassInfo start = ClassInfo.forName(owner);
+		boolean complete = start != null;
+		if (start != null) {
+			classInfos.add(start);
+		}
+
+		while (!classInfos.isEmpty()) {
+			ClassInfo c = classInfos.remove();
+			owners.add(unmap(c.getName()));
+
+			if (!c.getSuperName().startsWith("java/")) {
+				ClassInfo cSuper = c.getSuperClass();
+				if (cSuper != null) {
+					classInfos.add(cSuper);
+				} else {
+					complete = false;
+				}
+			}
+
+			for (String itf : c.getInterfaces()) {
+				if (itf.startsWith("java/")) {
+					continue;
+				}
+
+				ClassInfo cItf = ClassInfo.forName(itf);
+				if (cItf != null) {
+					classInfos.add(cItf);
+				} else {
+					complete = false;
+				}
+			}
+		}
+
+		ret = owners.isEmpty() ? NO_CLASSES : owners.toArray(new String[0]);
+		if (complete) {
+			methodHierarchyCache.put(owner, ret);
+		}
+
+		return ret;
+	}
+
+	private String[] getFieldHierarchy(String owner) {
+		String[] ret = fieldHierarchyCache.get(owner);
+		if (ret != null) {
+			return ret;
+		}
+
+		List<String> owners = new ArrayList<>();
+		ClassInfo c = ClassInfo.forName(map(owner));
+		boolean complete = false;
+
+		while (c != null) {
+			owners.add(unmap(c.getName()));
+
+			if (c.getSuperName().startsWith("java/")) {
+				complete = true;
+				break;
+			}
+
+			c = c.getSuperClass();
+		}
+
+		ret = owners.isEmpty() ? NO_CLASSES : owners.toArray(new String[0]);
+		if (complete) {
+			fieldHierarchyCache.put(owner, ret);
+		}
+
+		return ret;
+	}
+
 	@Override
 	public String mapMethodName(String owner, String name, String desc) {
+		if (owner == null) {
+			return mapMethodNameUncached(null, name, desc);
+		}
+
+		MemberKey key = new MemberKey(owner, name, desc);
+		String ret = methodCache.get(key);
+
+		if (ret == null) {
+			ret = mapMethodNameUncached(owner, name, desc);
+
+			if (ret != null) {
+				methodCache.put(key, ret);
+			} else {
+				ret = name;
+			}
+		}
+
+		return ret;
+	}
+
+	private String mapMethodNameUncached(String owner, String name, String desc) {
 		// handle unambiguous values early
 		if (owner == null || allPossibleClassNames.contains(owner)) {
-			Set<String> values = nameDescMethodLookup.get(name + ";;" + desc);
+			Set<String> values = getNameDesc(nameDescMethodLookup, name, desc);
 			if (values != null && !values.isEmpty()) {
 				if (values.size() > 1) {
 					if (owner == null) {
@@ -110,7 +258,7 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			} else {
 				// TODO: this should not repeat more than once
 				String unmapOwner = unmap(owner);
-				String unmapDesc = unmapDesc(desc);
+				String unmapDesc = unmapDescCached(desc);
 				if (!unmapOwner.equals(owner) || !unmapDesc.equals(desc)) {
 					return mapMethodName(unmapOwner, name, unmapDesc);
 				} else {
@@ -122,44 +270,43 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			}
 		}
 
-		LinkedList<ClassInfo> classInfos = new LinkedList<>();
-		classInfos.add(ClassInfo.forName(owner));
-
-		while (!classInfos.isEmpty()) {
-			ClassInfo c = classInfos.remove();
-			String ownerO = unmap(c.getName());
+		for (String ownerO : getMethodHierarchy(owner)) {
 			String s;
 			if (!(s = mapMethodNameInner(ownerO, name, desc)).equals(name)) {
 				return s;
 			}
+		}
 
-			if (!c.getSuperName().startsWith("java/")) {
-				ClassInfo cSuper = c.getSuperClass();
-				if (cSuper != null) {
-					classInfos.add(cSuper);
-				}
-			}
+		// null if the hierarchy wasn't fully known yet, so the miss isn't memoized
+		return methodHierarchyCache.containsKey(owner) ? name : null;
+	}
 
-			for (String itf : c.getInterfaces()) {
-				if (itf.startsWith("java/")) {
-					continue;
-				}
+	@Override
+	public String mapFieldName(String owner, String name, String desc) {
+		if (owner == null) {
+			return mapFieldNameUncached(null, name, desc);
+		}
 
-				ClassInfo cItf = ClassInfo.forName(itf);
-				if (cItf != null) {
-					classInfos.add(cItf);
-				}
+		MemberKey key = new MemberKey(owner, name, desc);
+		String ret = fieldCache.get(key);
+
+		if (ret == null) {
+			ret = mapFieldNameUncached(owner, name, desc);
+
+			if (ret != null) {
+				fieldCache.put(key, ret);
+			} else {
+				ret = name;
 			}
 		}
 
-		return name;
+		return ret;
 	}
 
-	@Override
-	public String mapFieldName(String owner, String name, String desc) {
+	private String mapFieldNameUncached(String owner, String name, String desc) {
 		// handle unambiguous values early
 		if (owner == null || allPossibleClassNames.contains(owner)) {
-			Set<String> values = nameDescFieldLookup.get(name + ";;" + desc);
+			Set<String> values = getNameDesc(nameDescFieldLookup, name, desc);
 			if (values != null && !values.isEmpty()) {
 				if (values.size() > 1) {
 					if (owner == null) {
@@ -173,7 +320,7 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			} else {
 				// TODO: this should not repeat more than once
 				String unmapOwner = unmap(owner);
-				String unmapDesc = unmapDesc(desc);
+				String unmapDesc = unmapDescCached(desc);
 				if (!unmapOwner.equals(owner) || !unmapDesc.equals(desc)) {
 					return mapFieldName(unmapOwner, name, unmapDesc);
 				} else {
@@ -185,22 +332,14 @@ public class MixinIntermediaryDevRemapper extends MixinMappingsRemapper {
 			}
 		}
 
-		ClassInfo c = ClassInfo.forName(map(owner));
-
-		while (c != null) {
-			String nextOwner = unmap(c.getName());
+		for (String nextOwner : getFieldHierarchy(owner)) {
 			String s;
 			if (!(s = mapFieldNameInner(nextOwner, name, desc)).equals(name)) {
 				return s;
 			}
-
-			if (c.getSuperName().startsWith("java/")) {
-				break;
-			}
-
-			c = c.getSuperClass();
 		}
 
-		return name;
+		// null if the hierarchy wasn't fully known yet, so the miss isn't memoized
+		return fieldHierarchyCache.containsKey(owner) ? name : null;
 	}
 }
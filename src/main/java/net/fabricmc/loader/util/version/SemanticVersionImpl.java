@@ -21,81 +21,82 @@ import net.fabricmc.loader.api.SemanticVersion;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 public class SemanticVersionImpl implements SemanticVersion {
-	private static final Pattern DOT_SEPARATED_ID = Pattern.compile("|[-0-9A-Za-z]+(\\.[-0-9A-Za-z]+)*");
 	private final int[] components;
 	private final String prerelease;
 	private final String build;
 	private String friendlyName;
 
 	public SemanticVersionImpl(String version, boolean storeX) throws VersionParsingException {
+		int length = version.length();
 		int buildDelimPos = version.indexOf('+');
-		if (buildDelimPos >= 0) {
-			build = version.substring(buildDelimPos + 1);
-			version = version.substring(0, buildDelimPos);
-		} else {
-			build = null;
+		int coreEnd = buildDelimPos >= 0 ? buildDelimPos : length;
+		int dashDelimPos = version.indexOf('-');
+
+		if (dashDelimPos >= coreEnd) {
+			// the dash is part of the build string
+			dashDelimPos = -1;
 		}
 
-		int dashDelimPos = version.indexOf('-');
 		if (dashDelimPos >= 0) {
-			prerelease = version.substring(dashDelimPos + 1);
-			version = version.substring(0, dashDelimPos);
+			prerelease = version.substring(dashDelimPos + 1, coreEnd);
+			coreEnd = dashDelimPos;
 		} else {
 			prerelease = null;
 		}
 
-		if (prerelease != null && !DOT_SEPARATED_ID.matcher(prerelease).matches()) {
+		build = buildDelimPos >= 0 ? version.substring(buildDelimPos + 1) : null;
+
+		if (prerelease != null && !isDotSeparatedId(prerelease)) {
 			throw new VersionParsingException("Invalid prerelease string '" + prerelease + "'!");
 		}
 
-		if (build != null && !DOT_SEPARATED_ID.matcher(build).matches()) {
+		if (build != null && !isDotSeparatedId(build)) {
 			throw new VersionParsingException("Invalid build string '" + build + "'!");
 		}
 
-		if (version.endsWith(".")) {
+		if (coreEnd > 0 && version.charAt(coreEnd - 1) == '.') {
 			throw new VersionParsingException("Negative version number component found!");
-		} else if (version.startsWith(".")) {
+		} else if (coreEnd > 0 && version.charAt(0) == '.') {
 			throw new VersionParsingException("Missing version component!");
 		}
 
-		String[] componentStrings = version.split("\\.");
-		if (componentStrings.length < 1) {
-			throw new VersionParsingException("Did not provide version numbers!");
+		int componentCount = 1;
+
+		for (int i = 0; i < coreEnd; i++) {
+			if (version.charAt(i) == '.') {
+				componentCount++;
+			}
 		}
 
-		components = new int[componentStrings.length];
+		components = new int[componentCount];
+		int start = 0;
+
+		for (int i = 0; i < componentCount; i++) {
+			int end = version.indexOf('.', start);
+
+			if (end < 0 || end > coreEnd) {
+				end = coreEnd;
+			}
 
-		for (int i = 0; i < componentStrings.length; i++) {
-			String compStr = componentStrings[i];
 
 			if (storeX) {
-				if (compStr.equals("x") || compStr.equals("X") || compStr.equals("*")) {
+				if (end - start == 1 && isWildcard(version.charAt(start))) {
 					if (prerelease != null) {
 						throw new VersionParsingException("Pre-release versions are not allowed to use X-ranges!");
 					}
 
 					components[i] = Integer.MIN_VALUE;
+					start = end + 1;
 					continue;
 				} else if (i > 0 && components[i - 1] == Integer.MIN_VALUE) {
 					throw new VersionParsingException("Interjacent wildcard (1.x.2) are disallowed!");
 				}
 			}
 
-			if (compStr.trim().isEmpty()) {
-				throw new VersionParsingException("Missing version number component!");
-			}
-
-			try {
-				components[i] = Integer.parseInt(compStr);
-				if (components[i] < 0) {
-					throw new VersionParsingException("Negative version number component '" + compStr + "'!");
-				}
-			} catch (NumberFormatException e) {
-				throw new VersionParsingException("Could not parse version number component '" + compStr + "'!", e);
-			}
+			components[i] = parseComponent(version, start, end);
+			start = end + 1;
 		}
 
 		if (storeX && components.length == 1 && components[0] == Integer.MIN_VALUE) {
@@ -105,6 +106,78 @@ public class SemanticVersionImpl implements SemanticVersion {
 		buildFriendlyName();
 	}
 
+	private static boolean isWildcard(char c) {
+		return c == 'x' || c == 'X' || c == '*';
+	}
+
+	private static int parseComponent(String version, int start, int end) throws VersionParsingException {
+		int length = end - start;
+
+		// fast path for plain ASCII numbers that can't overflow
+		if (length > 0 && length <= 9) {
+			int value = 0;
+
+			for (int i = start; i < end; i++) {
+				char c = version.charAt(i);
+
+				if (c < '0' || c > '9') {
+					value = -1;
+					break;
+				}
+
+				value = value * 10 + (c - '0');
+			}
+
+			if (value >= 0) {
+				return value;
+			}
+		}
+
+		// everything else goes through the same checks as before
+		String compStr = version.substring(start, end);
+
+		if (compStr.trim().isEmpty()) {
+			throw new VersionParsingException("Missing version number component!");
+		}
+
+		try {
+			int value = Integer.parseInt(compStr);
+			if (value < 0) {
+				throw new VersionParsingException("Negative version number component '" + compStr + "'!");
+			}
+
+			return value;
+		} catch (NumberFormatException e) {
+			throw new VersionParsingException("Could not parse version number component '" + compStr + "'!", e);
+		}
+	}
+
+	/**
+	 * Checks whether a string is empty or a sequence of non-empty, dot separated [-0-9A-Za-z] identifiers.
+	 */
+	private static boolean isDotSeparatedId(String s) {
+		int length = s.length();
+		boolean segmentStart = true;
+
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+
+			if (c == '.') {
+				if (segmentStart) {
+					return false;
+				}
+
+				segmentStart = true;
+			} else if (c == '-' || c >= '0' && c <= '9' || c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z') {
+				segmentStart = false;
+			} else {
+				return false;
+			}
+		}
+
+		return length == 0 || !segmentStart;
+	}
+
 	private void buildFriendlyName() {
 		StringBuilder fnBuilder = new StringBuilder();
 		boolean first = true;
@@ -24,8 +24,53 @@ public final class SemanticVersionPredicateParser {
 	private static final Map<String, Function<SemanticVersionImpl, Predicate<SemanticVersionImpl>>> PREFIXES;
 
 	public static Predicate<SemanticVersionImpl> create(String text) throws VersionParsingException {
-		List<Predicate<SemanticVersionImpl>> predicateList = new ArrayList<>();
-		List<SemanticVersionImpl> prereleaseVersions = new ArrayList<>();
+		List<Term> terms = parseTerms(text);
+
+		if (terms.isEmpty()) {
+			return (s) -> true;
+		}
+
+		List<Predicate<SemanticVersionImpl>> predicateList = new ArrayList<>(terms.size());
+		VersionIntervalSet intervals = VersionIntervalSet.ALL;
+
+		for (Term term : terms) {
+			predicateList.add(PREFIXES.get(term.prefix).apply(term.version));
+			intervals = intervals.intersect(term.toIntervals());
+		}
+
+		final VersionIntervalSet finalIntervals = intervals;
+
+		return (s) -> {
+			if (!s.hasWildcard()) {
+				return finalIntervals.contains(s);
+			}
+
+			// wildcard versions have no position in the version order, so compare them term by term
+			for (Predicate<SemanticVersionImpl> p : predicateList) {
+				if (!p.test(s)) {
+					return false;
+				}
+			}
+
+			return true;
+		};
+	}
+
+	/**
+	 * Parse a predicate into the set of (non-wildcard) versions it accepts.
+	 */
+	public static VersionIntervalSet createIntervals(String text) throws VersionParsingException {
+		VersionIntervalSet intervals = VersionIntervalSet.ALL;
+
+		for (Term term : parseTerms(text)) {
+			intervals = intervals.intersect(term.toIntervals());
+		}
+
+		return intervals;
+	}
+
+	private static List<Term> parseTerms(String text) throws VersionParsingException {
+		List<Term> terms = new ArrayList<>();
 
 		for (String s : text.split(" ")) {
 			s = s.trim();
@@ -33,42 +78,119 @@ public final class SemanticVersionPredicateParser {
 				continue;
 			}
 
-			Function<SemanticVersionImpl, Predicate<SemanticVersionImpl>> factory = null;
+			String termPrefix = null;
 			for (String prefix : PREFIXES.keySet()) {
 				if (s.startsWith(prefix)) {
-					factory = PREFIXES.get(prefix);
+					termPrefix = prefix;
 					s = s.substring(prefix.length());
 					break;
 				}
 			}
 
 			SemanticVersionImpl version = new SemanticVersionImpl(s, true);
-			if (version.isPrerelease()) {
-				prereleaseVersions.add(version);
-			}
 
-			if (factory == null) {
-				factory = PREFIXES.get("=");
+			if (termPrefix == null) {
+				termPrefix = "=";
 			} else if (version.hasWildcard()) {
 				throw new VersionParsingException("Prefixed ranges are not allowed to use X-ranges!");
 			}
 
-			predicateList.add(factory.apply(version));
+			terms.add(new Term(termPrefix, version));
 		}
 
-		if (predicateList.isEmpty()) {
-			return (s) -> true;
+		return terms;
+	}
+
+	private static final class Term {
+		final String prefix;
+		final SemanticVersionImpl version;
+
+		Term(String prefix, SemanticVersionImpl version) {
+			this.prefix = prefix;
+			this.version = version;
 		}
 
-		return (s) -> {
-			for (Predicate<SemanticVersionImpl> p : predicateList) {
-				if (!p.test(s)) {
-					return false;
-				}
+		VersionIntervalSet toIntervals() throws VersionParsingException {
+			switch (prefix) {
+				case ">=":
+					return VersionIntervalSet.of(version, true, null, false);
+				case "<=":
+					return VersionIntervalSet.of(null, false, version, true);
+				case ">":
+					return VersionIntervalSet.of(version, false, null, false);
+				case "<":
+					return VersionIntervalSet.of(null, false, version, false);
+				case "=":
+					if (version.hasWildcard()) {
+						int[] components = new int[getWildcardPosition(version)];
+
+						if (components.length == 0) {
+							return VersionIntervalSet.ALL;
+						}
+
+						for (int i = 0; i < components.length; i++) {
+							components[i] = version.getVersionComponent(i);
+						}
+
+						return VersionIntervalSet.of(lowestWithPrefix(components), true, aboveAllWithPrefix(components), false);
+					}
+
+					return VersionIntervalSet.of(version, true, version, true);
+				case "~":
+					return VersionIntervalSet.of(version, true, aboveAllWithPrefix(new int[] { version.getVersionComponent(0), version.getVersionComponent(1) }), false);
+				case "^":
+					return VersionIntervalSet.of(version, true, aboveAllWithPrefix(new int[] { version.getVersionComponent(0) }), false);
+				default:
+					throw new VersionParsingException("Unknown prefix " + prefix);
 			}
+		}
 
-			return true;
-		};
+		private static int getWildcardPosition(SemanticVersionImpl version) {
+			int i = 0;
+
+			while (version.getVersionComponent(i) != Integer.MIN_VALUE) {
+				i++;
+			}
+
+			return i;
+		}
+	}
+
+	/**
+	 * The lowest version starting with the given components: the components followed by an empty prerelease.
+	 */
+	private static SemanticVersionImpl lowestWithPrefix(int[] prefix) throws VersionParsingException {
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < prefix.length; i++) {
+			if (i > 0) {
+				builder.append('.');
+			}
+
+			builder.append(prefix[i]);
+		}
+
+		return new SemanticVersionImpl(builder.append('-').toString(), false);
+	}
+
+	/**
+	 * The lowest version above all versions starting with the given components, or null if there is none.
+	 */
+	private static SemanticVersionImpl aboveAllWithPrefix(int[] prefix) throws VersionParsingException {
+		int length = prefix.length;
+
+		while (length > 0 && prefix[length - 1] == Integer.MAX_VALUE) {
+			length--;
+		}
+
+		if (length == 0) {
+			return null;
+		}
+
+		int[] next = Arrays.copyOf(prefix, length);
+		next[length - 1]++;
+
+		return lowestWithPrefix(next);
 	}
 
 	static {
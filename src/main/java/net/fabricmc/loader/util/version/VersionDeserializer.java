@@ -24,14 +24,32 @@ import net.fabricmc.loader.api.SemanticVersion;
 import net.fabricmc.loader.api.Version;
 
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class VersionDeserializer implements JsonDeserializer<Version> {
+	/**
+	 * Versions are immutable and the same strings show up for many mods and nested JARs,
+	 * so parsed versions are shared. The cache stops growing once it reaches this size.
+	 */
+	private static final int CACHE_LIMIT = 4096;
+	private static final Map<String, Version> cache = new ConcurrentHashMap<>();
+
 	public static SemanticVersion deserializeSemantic(String s) throws VersionParsingException {
 		if (s == null || s.isEmpty()) {
 			throw new VersionParsingException("Version must be a non-empty string!");
 		}
 
-		return new SemanticVersionImpl(s, false);
+		Version cached = cache.get(s);
+
+		if (cached instanceof SemanticVersion) {
+			return (SemanticVersion) cached;
+		}
+
+		SemanticVersion version = new SemanticVersionImpl(s, false);
+		cache(s, version);
+
+		return version;
 	}
 
 	public static Version deserialize(String s) throws VersionParsingException {
@@ -39,7 +57,11 @@ public class VersionDeserializer implements JsonDeserializer<Version> {
 			throw new VersionParsingException("Version must be a non-empty string!");
 		}
 
-		Version version;
+		Version version = cache.get(s);
+
+		if (version != null) {
+			return version;
+		}
 
 		try {
 			version = new SemanticVersionImpl(s, false);
@@ -47,9 +69,17 @@ public class VersionDeserializer implements JsonDeserializer<Version> {
 			version = new StringVersion(s);
 		}
 
+		cache(s, version);
+
 		return version;
 	}
 
+	private static void cache(String s, Version version) {
+		if (cache.size() < CACHE_LIMIT) {
+			cache.putIfAbsent(s, version);
+		}
+	}
+
 	@Override
 	public Version deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
 		if (!json.isJsonPrimitive()) {
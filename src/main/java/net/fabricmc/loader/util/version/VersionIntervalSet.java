@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.loader.util.version;
+
+import net.fabricmc.loader.api.SemanticVersion;
+
+import java.util.*;
+
+/**
+ * A set of semantic versions, stored as sorted, disjoint intervals in {@link SemanticVersion#compareTo} order.
+ *
+ * <p>Wildcard versions have no position in that order, so interval sets are only meaningful for
+ * concrete versions such as those of mods.</p>
+ */
+public final class VersionIntervalSet {
+	public static final VersionIntervalSet ALL = new VersionIntervalSet(Collections.singletonList(new Interval(null, false, null, false)));
+	public static final VersionIntervalSet EMPTY = new VersionIntervalSet(Collections.emptyList());
+
+	private final List<Interval> intervals;
+
+	private VersionIntervalSet(List<Interval> intervals) {
+		this.intervals = intervals;
+	}
+
+	public static VersionIntervalSet of(SemanticVersion lower, boolean lowerInclusive, SemanticVersion upper, boolean upperInclusive) {
+		Interval interval = new Interval(lower, lowerInclusive, upper, upperInclusive);
+		return interval.isEmpty() ? EMPTY : new VersionIntervalSet(Collections.singletonList(interval));
+	}
+
+	public List<Interval> getIntervals() {
+		return intervals;
+	}
+
+	public boolean isEmpty() {
+		return intervals.isEmpty();
+	}
+
+	public boolean contains(SemanticVersion version) {
+		int low = 0;
+		int high = intervals.size() - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			Interval interval = intervals.get(mid);
+
+			if (interval.isAbove(version)) {
+				high = mid - 1;
+			} else if (interval.isBelow(version)) {
+				low = mid + 1;
+			} else {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public boolean intersects(VersionIntervalSet other) {
+		return !intersect(other).isEmpty();
+	}
+
+	public VersionIntervalSet intersect(VersionIntervalSet other) {
+		if (this == ALL || other.isEmpty()) return other;
+		if (other == ALL || isEmpty()) return this;
+
+		List<Interval> ret = new ArrayList<>();
+		int i = 0;
+		int j = 0;
+
+		while (i < intervals.size() && j < other.intervals.size()) {
+			Interval a = intervals.get(i);
+			Interval b = other.intervals.get(j);
+			Interval intersection = a.intersect(b);
+
+			if (!intersection.isEmpty()) {
+				ret.add(intersection);
+			}
+
+			// advance past whichever interval ends first
+			if (compareUpper(a, b) <= 0) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+
+		return ret.isEmpty() ? EMPTY : new VersionIntervalSet(Collections.unmodifiableList(ret));
+	}
+
+	public VersionIntervalSet union(VersionIntervalSet other) {
+		if (this == ALL || other.isEmpty()) return this;
+		if (other == ALL || isEmpty()) return other;
+
+		List<Interval> sorted = new ArrayList<>(intervals.size() + other.intervals.size());
+		sorted.addAll(intervals);
+		sorted.addAll(other.intervals);
+		sorted.sort(VersionIntervalSet::compareLower);
+
+		List<Interval> ret = new ArrayList<>(sorted.size());
+		Interval current = sorted.get(0);
+
+		for (int i = 1; i < sorted.size(); i++) {
+			Interval next = sorted.get(i);
+
+			if (current.connects(next)) {
+				if (compareUpper(next, current) > 0) {
+					current = new Interval(current.lower, current.lowerInclusive, next.upper, next.upperInclusive);
+				}
+			} else {
+				ret.add(current);
+				current = next;
+			}
+		}
+
+		ret.add(current);
+
+		return new VersionIntervalSet(Collections.unmodifiableList(ret));
+	}
+
+	private static int compareLower(Interval a, Interval b) {
+		if (a.lower == null || b.lower == null) {
+			return Boolean.compare(a.lower != null, b.lower != null);
+		}
+
+		int cmp = a.lower.compareTo(b.lower);
+		return cmp != 0 ? cmp : Boolean.compare(!a.lowerInclusive, !b.lowerInclusive);
+	}
+
+	private static int compareUpper(Interval a, Interval b) {
+		if (a.upper == null || b.upper == null) {
+			return Boolean.compare(a.upper == null, b.upper == null);
+		}
+
+		int cmp = a.upper.compareTo(b.upper);
+		return cmp != 0 ? cmp : Boolean.compare(a.upperInclusive, b.upperInclusive);
+	}
+
+	@Override
+	public String toString() {
+		if (intervals.isEmpty()) {
+			return "{}";
+		}
+
+		StringBuilder builder = new StringBuilder();
+
+		for (Interval interval : intervals) {
+			if (builder.length() > 0) {
+				builder.append(" || ");
+			}
+
+			builder.append(interval);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * A single interval of versions. A null bound is unbounded.
+	 */
+	public static final class Interval {
+		private final SemanticVersion lower;
+		private final boolean lowerInclusive;
+		private final SemanticVersion upper;
+		private final boolean upperInclusive;
+
+		Interval(SemanticVersion lower, boolean lowerInclusive, SemanticVersion upper, boolean upperInclusive) {
+			this.lower = lower;
+			this.lowerInclusive = lower != null && lowerInclusive;
+			this.upper = upper;
+			this.upperInclusive = upper != null && upperInclusive;
+		}
+
+		public SemanticVersion getLower() {
+			return lower;
+		}
+
+		public boolean isLowerInclusive() {
+			return lowerInclusive;
+		}
+
+		public SemanticVersion getUpper() {
+			return upper;
+		}
+
+		public boolean isUpperInclusive() {
+			return upperInclusive;
+		}
+
+		public boolean contains(SemanticVersion version) {
+			return !isAbove(version) && !isBelow(version);
+		}
+
+		boolean isEmpty() {
+			if (lower == null || upper == null) {
+				return false;
+			}
+
+			int cmp = lower.compareTo(upper);
+			return cmp > 0 || cmp == 0 && !(lowerInclusive && upperInclusive);
+		}
+
+		/**
+		 * @return Whether the whole interval lies above the version.
+		 */
+		boolean isAbove(SemanticVersion version) {
+			if (lower == null) {
+				return false;
+			}
+
+			int cmp = version.compareTo(lower);
+			return cmp < 0 || cmp == 0 && !lowerInclusive;
+		}
+
+		/**
+		 * @return Whether the whole interval lies below the version.
+		 */
+		boolean isBelow(SemanticVersion version) {
+			if (upper == null) {
+				return false;
+			}
+
+			int cmp = version.compareTo(upper);
+			return cmp > 0 || cmp == 0 && !upperInclusive;
+		}
+
+		Interval intersect(Interval other) {
+			Interval lowerSource = compareLower(this, other) >= 0 ? this : other;
+			Interval upperSource = compareUpper(this, other) <= 0 ? this : other;
+
+			return new Interval(lowerSource.lower, lowerSource.lowerInclusive, upperSource.upper, upperSource.upperInclusive);
+		}
+
+		/**
+		 * @return Whether this interval overlaps or touches the following interval, so the two can be merged.
+		 */
+		boolean connects(Interval next) {
+			if (upper == null || next.lower == null) {
+				return true;
+			}
+
+			int cmp = next.lower.compareTo(upper);
+			return cmp < 0 || cmp == 0 && (upperInclusive || next.lowerInclusive);
+		}
+
+		@Override
+		public String toString() {
+			return (lowerInclusive ? "[" : "(") + (lower != null ? lower.getFriendlyString() : "-inf")
+				+ ", " + (upper != null ? upper.getFriendlyString() : "inf") + (upperInclusive ? "]" : ")");
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.api.metadata.ContactInformation;
+import net.fabricmc.loader.api.metadata.Person;
+import net.fabricmc.loader.metadata.CompactModMetadata;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Checks that compacted metadata answers every query the same way as the parsed metadata.
+ */
+public class CompactModMetadataTests {
+	private static final String V1 = "{\"schemaVersion\": 1, \"id\": \"example\", \"version\": \"1.2.3+build.4\", \"environment\": \"client\","
+		+ " \"name\": \"Example Mod\", \"description\": \"An example.\", \"license\": [\"MIT\", \"CC0-1.0\"],"
+		+ " \"authors\": [\"Some One\", {\"name\": \"Someone Else\", \"contact\": {\"email\": \"else@example.org\", \"homepage\": \"https://example.org\"}}],"
+		+ " \"contributors\": [{\"name\": \"Helper\"}], \"contact\": {\"sources\": \"https://example.org/src\", \"issues\": \"https://example.org/issues\"},"
+		+ " \"icon\": {\"16\": \"icon16.png\", \"64\": \"icon64.png\"}, \"languageAdapters\": {\"kotlin\": \"net.example.KotlinAdapter\"},"
+		+ " \"entrypoints\": {\"main\": [\"net.example.Main\", {\"adapter\": \"kotlin\", \"value\": \"net.example.Other\"}], \"client\": [\"net.example.Client\"]},"
+		+ " \"jars\": [{\"file\": \"META-INF/jars/lib.jar\"}], \"mixins\": [\"example.mixins.json\", {\"config\": \"example.client.mixins.json\", \"environment\": \"client\"}],"
+		+ " \"depends\": {\"fabricloader\": \">=0.4.0\", \"minecraft\": [\"1.14.x\", \"1.15.x\"]}, \"breaks\": {\"other\": \"*\"},"
+		+ " \"custom\": {\"modmenu:api\": true, \"example:data\": {\"list\": [1, 2.5, \"three\", null], \"nested\": {\"a\": \"\\u00e9\"}}}}";
+	private static final String V1_MINIMAL = "{\"schemaVersion\": 1, \"id\": \"minimal\", \"version\": \"1.0\", \"icon\": \"icon.png\"}";
+	private static final String V0 = "{\"id\": \"legacy\", \"version\": \"0.1.0\", \"side\": \"server\", \"name\": \"Legacy\", \"initializers\": [\"net.example.Init\"],"
+		+ " \"requires\": {\"fabric\": \"*\"}, \"recommends\": {\"other\": {\"version\": \"1.0\", \"side\": \"client\"}},"
+		+ " \"mixins\": {\"common\": \"legacy.mixins.json\", \"server\": [\"legacy.server.mixins.json\"]},"
+		+ " \"authors\": [\"Some One <one@example.org> (https://example.org)\", {\"name\": \"Two\"}], \"links\": \"https://example.org\", \"license\": \"MIT\"}";
+
+	private static void testTrue(boolean b, String message) {
+		if (!b) {
+			throw new RuntimeException("Test failed: " + message);
+		}
+	}
+
+	private static <T> void testSame(LoaderModMetadata expected, LoaderModMetadata actual, String what, Function<LoaderModMetadata, T> getter) {
+		T e = getter.apply(expected);
+		T a = getter.apply(actual);
+		testTrue(Objects.equals(e, a), expected.getId() + " " + what + ": expected " + e + ", got " + a);
+	}
+
+	private static List<Object> persons(Collection<Person> persons) {
+		List<Object> ret = new ArrayList<>();
+
+		for (Person person : persons) {
+			ret.add(person.getName());
+			ret.add(person.getContact().asMap());
+		}
+
+		return ret;
+	}
+
+	private static Map<String, Optional<String>> contact(ContactInformation contact) {
+		Map<String, Optional<String>> ret = new HashMap<>();
+
+		for (String key : new String[] { "email", "homepage", "issues", "sources", "irc" }) {
+			ret.put(key, contact.get(key));
+		}
+
+		return ret;
+	}
+
+	private static void test(String json) {
+		LoaderModMetadata parsed = ModMetadataParser.getMods(null, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))[0];
+		LoaderModMetadata compact = CompactModMetadata.compact(parsed);
+
+		testTrue(compact instanceof CompactModMetadata, parsed.getId() + " was not compacted");
+		testSame(parsed, compact, "type", LoaderModMetadata::getType);
+		testSame(parsed, compact, "schema version", LoaderModMetadata::getSchemaVersion);
+		testSame(parsed, compact, "id", LoaderModMetadata::getId);
+		testSame(parsed, compact, "version", LoaderModMetadata::getVersion);
+		testSame(parsed, compact, "depends", (m) -> new ArrayList<>(m.getDepends()));
+		testSame(parsed, compact, "recommends", (m) -> new ArrayList<>(m.getRecommends()));
+		testSame(parsed, compact, "suggests", (m) -> new ArrayList<>(m.getSuggests()));
+		testSame(parsed, compact, "conflicts", (m) -> new ArrayList<>(m.getConflicts()));
+		testSame(parsed, compact, "breaks", (m) -> new ArrayList<>(m.getBreaks()));
+		testSame(parsed, compact, "name", LoaderModMetadata::getName);
+		testSame(parsed, compact, "description", LoaderModMetadata::getDescription);
+		testSame(parsed, compact, "authors", (m) -> persons(m.getAuthors()));
+		testSame(parsed, compact, "contributors", (m) -> persons(m.getContributors()));
+		testSame(parsed, compact, "contact", (m) -> m.getContact().asMap());
+		testSame(parsed, compact, "contact lookup", (m) -> contact(m.getContact()));
+		testSame(parsed, compact, "license", (m) -> new ArrayList<>(m.getLicense()));
+
+		for (int size : new int[] { 0, 1, 16, 17, 32, 64, 65, 512 }) {
+			testSame(parsed, compact, "icon " + size, (m) -> m.getIconPath(size));
+		}
+
+		for (String key : new String[] { "modmenu:api", "example:data", "missing" }) {
+			testSame(parsed, compact, "has custom " + key, (m) -> m.containsCustomElement(key));
+			testSame(parsed, compact, "custom " + key, (m) -> m.getCustomElement(key));
+		}
+
+		testSame(parsed, compact, "old language adapter", LoaderModMetadata::getOldStyleLanguageAdapter);
+		testSame(parsed, compact, "language adapters", LoaderModMetadata::getLanguageAdapterDefinitions);
+		testSame(parsed, compact, "jars", (m) -> new ArrayList<>(m.getJars()));
+		testSame(parsed, compact, "old initializers", (m) -> new ArrayList<>(m.getOldInitializers()));
+		testSame(parsed, compact, "entrypoint keys", (m) -> new HashSet<>(m.getEntrypointKeys()));
+
+		for (String key : new String[] { "main", "client", "server" }) {
+			testSame(parsed, compact, "entrypoints " + key, (m) -> m.getEntrypoints(key));
+		}
+
+		for (EnvType env : EnvType.values()) {
+			testSame(parsed, compact, "mixins " + env, (m) -> new ArrayList<>(m.getMixinConfigs(env)));
+			testSame(parsed, compact, "loads in " + env, (m) -> m.loadsInEnvironment(env));
+		}
+
+		// interned so that equal IDs across mods share one string
+		testTrue(compact.getId() == compact.getId().intern(), "id is not interned");
+	}
+
+	public static void main(String[] args) {
+		test(V1);
+		test(V1_MINIMAL);
+		test(V0);
+		System.out.println("CompactModMetadataTests OK");
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import net.fabricmc.loader.ModContainer;
+import net.fabricmc.loader.api.EntrypointContainer;
+import net.fabricmc.loader.api.LanguageAdapter;
+import net.fabricmc.loader.metadata.EntrypointMetadata;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Checks that entrypoints whose language adapter returns null are skipped instead of failing the lookup.
+ */
+public class EntrypointStorageTests {
+	private static void testTrue(boolean b, String message) {
+		if (!b) {
+			throw new RuntimeException("Test failed: " + message);
+		}
+	}
+
+	private static EntrypointMetadata entrypoint(String value) {
+		return new EntrypointMetadata() {
+			@Override
+			public String getAdapter() {
+				return "test";
+			}
+
+			@Override
+			public String getValue() {
+				return value;
+			}
+		};
+	}
+
+	public static void main(String[] args) throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		Runnable instance = () -> { };
+		LanguageAdapter adapter = new LanguageAdapter() {
+			@Override
+			public <T> T create(net.fabricmc.loader.api.ModContainer mod, String value, Class<T> type) {
+				created.incrementAndGet();
+				return value.equals("null") ? null : type.cast(instance);
+			}
+		};
+
+		String json = "{\"schemaVersion\":1,\"id\":\"test\",\"version\":\"1.0.0\"}";
+		LoaderModMetadata metadata = ModMetadataParser.getMods(null, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))[0];
+		ModContainer mod = new ModContainer(metadata, new File(".").toURI().toURL());
+
+		Class<?> storageClass = Class.forName("net.fabricmc.loader.EntrypointStorage");
+		Constructor<?> constructor = storageClass.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		Object storage = constructor.newInstance();
+
+		Method add = storageClass.getDeclaredMethod("add", ModContainer.class, String.class, EntrypointMetadata.class, Map.class);
+		Method getEntrypoints = storageClass.getDeclaredMethod("getEntrypoints", String.class, Class.class);
+		Method getEntrypointContainers = storageClass.getDeclaredMethod("getEntrypointContainers", String.class, Class.class);
+		Method invokeEntrypoints = storageClass.getDeclaredMethod("invokeEntrypoints", String.class, Class.class, Consumer.class);
+		add.setAccessible(true);
+		getEntrypoints.setAccessible(true);
+		getEntrypointContainers.setAccessible(true);
+		invokeEntrypoints.setAccessible(true);
+
+		Map<String, LanguageAdapter> adapters = Collections.singletonMap("test", adapter);
+		add.invoke(storage, mod, "main", entrypoint("null"), adapters);
+		add.invoke(storage, mod, "main", entrypoint("value"), adapters);
+
+		// Test: A null instance is skipped, and only created once.
+		for (int i = 0; i < 3; i++) {
+			List<?> entrypoints = (List<?>) getEntrypoints.invoke(storage, "main", Runnable.class);
+			testTrue(entrypoints.equals(Collections.singletonList(instance)), "expected only the non-null entrypoint, got " + entrypoints);
+		}
+
+		testTrue(created.get() == 2, "expected 2 instances to be created, got " + created.get());
+
+		List<Object> invoked = new ArrayList<>();
+		invokeEntrypoints.invoke(storage, "main", Runnable.class, (Consumer<Object>) invoked::add);
+		testTrue(invoked.equals(Collections.singletonList(instance)), "expected only the non-null entrypoint to be invoked, got " + invoked);
+
+		// Test: Containers expose the null instance as is.
+		List<?> containers = (List<?>) getEntrypointContainers.invoke(storage, "main", Runnable.class);
+		testTrue(containers.size() == 2, "expected 2 containers, got " + containers.size());
+		testTrue(((EntrypointContainer<?>) containers.get(0)).get() == null, "expected the null entrypoint to stay null");
+		testTrue(((EntrypointContainer<?>) containers.get(1)).get() == instance, "expected the non-null entrypoint");
+		testTrue(created.get() == 2, "expected no further instances to be created, got " + created.get());
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import net.fabricmc.loader.FabricLoader;
+import net.fabricmc.loader.discovery.ModCandidate;
+import net.fabricmc.loader.discovery.ModCandidateSet;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds hundreds of copies of the same nested library from many threads at once, the way
+ * parallel discovery does when a lot of mods ship the same JAR-in-JAR.
+ */
+public class ModCandidateSetStressTest {
+	private static final int THREADS = 16;
+	private static final int VERSIONS = 8;
+	private static final int COPIES = 400;
+	private static final int ROUNDS = 500;
+
+	private static LoaderModMetadata createMetadata(String version) {
+		String json = "{\"schemaVersion\": 1, \"id\": \"library\", \"version\": \"" + version + "\"}";
+		return ModMetadataParser.getMods(FabricLoader.INSTANCE, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))[0];
+	}
+
+	private static void testTrue(boolean b) {
+		if (!b) {
+			throw new RuntimeException("Test failed!");
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoaderModMetadata[] metadata = new LoaderModMetadata[VERSIONS];
+
+		for (int i = 0; i < VERSIONS; i++) {
+			metadata[i] = createMetadata("1." + i + ".0");
+		}
+
+		// every version is nested at depths 1..4, version 0 is also provided directly
+		List<ModCandidate> candidates = new ArrayList<>();
+
+		for (int i = 0; i < COPIES; i++) {
+			candidates.add(new ModCandidate(metadata[i % VERSIONS], new URL("file:/mods/mod" + i + ".jar"), 1 + (i / VERSIONS) % 4));
+		}
+
+		ModCandidate direct = new ModCandidate(metadata[0], new URL("file:/mods/direct.jar"), 0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				ConcurrentMap<String, ModCandidateSet> candidatesById = new ConcurrentHashMap<>();
+				AtomicInteger added = new AtomicInteger();
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<?>> futures = new ArrayList<>();
+
+				for (int t = 0; t < THREADS; t++) {
+					int offset = t * 31 + round;
+					boolean addsDirect = t == round % THREADS;
+
+					futures.add(executor.submit(() -> {
+						start.await();
+
+						for (int i = 0; i < COPIES; i++) {
+							// the direct copy is added exactly once, while nested copies are still being added
+							if (addsDirect && i == COPIES / 2 && candidatesById.computeIfAbsent("library", ModCandidateSet::new).add(direct)) {
+								added.incrementAndGet();
+							}
+
+							ModCandidate candidate = candidates.get((i + offset) % COPIES);
+
+							if (candidatesById.computeIfAbsent("library", ModCandidateSet::new).add(candidate)) {
+								added.incrementAndGet();
+							}
+						}
+
+						return null;
+					}));
+				}
+
+				start.countDown();
+
+				for (Future<?> future : futures) {
+					future.get();
+				}
+
+				ModCandidateSet set = candidatesById.get("library");
+				Collection<ModCandidate> result = set.getCandidates();
+
+				// one candidate per version, each at the lowest depth it was seen at
+				testTrue(result.size() == VERSIONS);
+
+				for (ModCandidate candidate : result) {
+					int version = candidate.getInfo().getVersion().getFriendlyString().charAt(2) - '0';
+
+					if (version == 0) {
+						// no nested copy may replace the direct one
+						testTrue(candidate == direct);
+					} else {
+						testTrue(candidate.getDepth() == 1);
+					}
+				}
+
+				// each version is added at least once and at most once per depth it can improve to
+				testTrue(added.get() >= VERSIONS && added.get() <= VERSIONS * 5);
+				testTrue(set.isUserProvided());
+
+				// the directly provided copy overrides all nested ones
+				Collection<ModCandidate> sorted = set.toSortedSet();
+				testTrue(sorted.size() == 1 && sorted.iterator().next() == direct);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		System.out.println("ModCandidateSetStressTest OK");
+	}
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import com.google.gson.JsonElement;
+import net.fabricmc.loader.api.Version;
+import net.fabricmc.loader.metadata.LoaderModMetadata;
+import net.fabricmc.loader.metadata.ModMetadataParser;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Compares the streaming fabric.mod.json parser against the Gson tree binding it replaced, on
+ * randomly generated v0 and v1 documents. Both must either fail or produce identical metadata.
+ */
+public class ModMetadataParserTests {
+	private static final int DOCUMENTS = 5000;
+
+	private static final String[] STRINGS = {
+		"modid", "Mod Name", "1.0.0", "net.example.Main::init", "", "client", "server", "*", "CLIENT",
+		"16", "Some One <some@one.org> (https://one.org)", "Some One <some@one.org>", "caf\\u00e9", "\\\"quoted\\\"", ">=1.2.0 <2", "1.x"
+	};
+	private static final String[] OTHER_VALUES = { "null", "1", "2.5", "true", "{}", "[]", "[\"a\"]", "{\"a\": 1}" };
+	private static final String[] VERSIONS = {
+		"\"1.0.0\"", "\"1.2.3-beta.1+build.5\"", "\"not semver\"", "\"\"", "\"1.x\"", "1", "1.5", "true", "null", "{}", "[]", "[\"1.0\"]"
+	};
+	private static final String[] ENTRYPOINT_KEYS = { "main", "client", "server", "custom" };
+	private static final String[] MOD_IDS = { "fabric", "minecraft", "modmenu", "other-mod" };
+
+	private final Random random = new Random(0x5eedL);
+
+	private boolean chance(int percent) {
+		return random.nextInt(100) < percent;
+	}
+
+	private String pick(String... options) {
+		return options[random.nextInt(options.length)];
+	}
+
+	private String string() {
+		return "\"" + pick(STRINGS) + "\"";
+	}
+
+	/**
+	 * A string most of the time, any other value otherwise.
+	 */
+	private String mostlyString() {
+		return chance(92) ? string() : pick(OTHER_VALUES);
+	}
+
+	private String orInvalid(Supplier<String> valid) {
+		return chance(95) ? valid.get() : pick(OTHER_VALUES);
+	}
+
+	private String array(int max, Supplier<String> element) {
+		StringJoiner joiner = new StringJoiner(", ", "[", "]");
+
+		for (int i = random.nextInt(max + 1); i > 0; i--) {
+			joiner.add(element.get());
+		}
+
+		return joiner.toString();
+	}
+
+	/**
+	 * An object with a random subset of the given keys in random order, no key appears twice.
+	 */
+	private String object(int presencePercent, Map<String, Supplier<String>> fields) {
+		List<String> keys = new ArrayList<>(fields.keySet());
+		Collections.shuffle(keys, random);
+		StringJoiner joiner = new StringJoiner(", ", "{", "}");
+
+		for (String key : keys) {
+			if (chance(presencePercent)) {
+				joiner.add("\"" + key + "\": " + fields.get(key).get());
+			}
+		}
+
+		return joiner.toString();
+	}
+
+	private String object(int presencePercent, String[] keys, Supplier<String> value) {
+		Map<String, Supplier<String>> fields = new LinkedHashMap<>();
+
+		for (String key : keys) {
+			fields.put(key, value);
+		}
+
+		return object(presencePercent, fields);
+	}
+
+	private String stringMap() {
+		if (chance(80)) {
+			return object(50, new String[] { "homepage", "issues", "sources", "email", "irc" }, this::mostlyString);
+		} else if (chance(70)) {
+			// key-value array form, may contain duplicate keys
+			return array(3, () -> "[\"" + pick("homepage", "issues", "email") + "\", " + mostlyString() + "]");
+		} else {
+			return pick(OTHER_VALUES);
+		}
+	}
+
+	private String anyValue(int depth) {
+		switch (random.nextInt(depth > 2 ? 4 : 6)) {
+			case 0:
+				return string();
+			case 1:
+				return pick("0", "-1", "1.5e3", "12345678901234567890");
+			case 2:
+				return pick("true", "false", "null");
+			case 3:
+				return "\"" + random.nextInt() + "\"";
+			case 4:
+				return array(3, () -> anyValue(depth + 1));
+			default:
+				return object(50, new String[] { "a", "b", "c" }, () -> anyValue(depth + 1));
+		}
+	}
+
+	private String v1Dependencies() {
+		return orInvalid(() -> object(50, MOD_IDS, () -> chance(60) ? mostlyString() : orInvalid(() -> array(3, this::mostlyString))));
+	}
+
+	private String v1Person() {
+		if (chance(50)) {
+			return mostlyString();
+		}
+
+		Map<String, Supplier<String>> fields = new LinkedHashMap<>();
+		fields.put("name", this::mostlyString);
+		fields.put("contact", this::stringMap);
+		fields.put("unknown", () -> anyValue(1));
+		return object(chance(95) ? 100 : 50, fields);
+	}
+
+	private String v1Document() {
+		Map<String, Supplier<String>> fields = new LinkedHashMap<>();
+		fields.put("schemaVersion", () -> chance(98) ? "1" : pick("\"1\"", "1.0"));
+		fields.put("id", this::mostlyString);
+		fields.put("version", () -> pick(VERSIONS));
+		fields.put("environment", () -> orInvalid(() -> "\"" + pick("client", "server", "*", "", "SERVER", "both") + "\""));
+		fields.put("entrypoints", () -> orInvalid(() -> object(50, ENTRYPOINT_KEYS, () -> orInvalid(() -> array(3, () -> {
+			if (chance(50)) {
+				return mostlyString();
+			}
+
+			Map<String, Supplier<String>> entry = new LinkedHashMap<>();
+			entry.put("adapter", this::mostlyString);
+			entry.put("value", this::mostlyString);
+			return object(chance(95) ? 100 : 50, entry);
+		})))));
+		fields.put("jars", () -> orInvalid(() -> array(3, () -> orInvalid(() -> object(chance(95) ? 100 : 0, new String[] { "file" }, this::mostlyString)))));
+		fields.put("mixins", () -> orInvalid(() -> array(3, () -> {
+			if (chance(50)) {
+				return mostlyString();
+			}
+
+			Map<String, Supplier<String>> entry = new LinkedHashMap<>();
+			entry.put("config", this::mostlyString);
+			entry.put("environment", () -> orInvalid(() -> "\"" + pick("client", "server", "*") + "\""));
+			return object(chance(95) ? 100 : 50, entry);
+		})));
+		fields.put("depends", this::v1Dependencies);
+		fields.put("recommends", this::v1Dependencies);
+		fields.put("suggests", this::v1Dependencies);
+		fields.put("conflicts", this::v1Dependencies);
+		fields.put("breaks", this::v1Dependencies);
+		fields.put("requires", this::v1Dependencies);
+		fields.put("name", this::mostlyString);
+		fields.put("description", this::mostlyString);
+		fields.put("authors", () -> orInvalid(() -> array(3, this::v1Person)));
+		fields.put("contributors", () -> orInvalid(() -> array(3, this::v1Person)));
+		fields.put("contact", this::stringMap);
+		fields.put("license", () -> chance(50) ? mostlyString() : orInvalid(() -> array(3, this::mostlyString)));
+		fields.put("icon", () -> chance(50) ? mostlyString() : orInvalid(() -> object(50, new String[] { "16", "32", "064", "128" }, () -> chance(97) ? string() : pick("0", "x", "{}"))));
+		fields.put("languageAdapters", this::stringMap);
+		fields.put("custom", () -> orInvalid(() -> object(50, new String[] { "modmenu:api", "example", "other" }, () -> anyValue(0))));
+		fields.put("unknown", () -> anyValue(0));
+		return object(60, fields);
+	}
+
+	private String v0Dependencies() {
+		Supplier<String> dependency = () -> {
+			if (chance(40)) {
+				return mostlyString();
+			} else if (chance(40)) {
+				return array(3, this::mostlyString);
+			}
+
+			Map<String, Supplier<String>> entry = new LinkedHashMap<>();
+			entry.put("version", () -> chance(50) ? mostlyString() : array(2, this::mostlyString));
+			entry.put("side", () -> orInvalid(() -> "\"" + pick("client", "server", "universal", "Client") + "\""));
+			return orInvalid(() -> object(chance(95) ? 100 : 50, entry));
+		};
+
+		if (chance(85)) {
+			return orInvalid(() -> object(50, MOD_IDS, dependency));
+		} else {
+			return array(3, () -> "[\"" + pick(MOD_IDS) + "\", " + dependency.get() + "]");
+		}
+	}
+
+	private String v0Person() {
+		if (chance(50)) {
+			return mostlyString();
+		}
+
+		return orInvalid(() -> object(70, new String[] { "name", "email", "website" }, this::mostlyString));
+	}
+
+	private String v0Document() {
+		Map<String, Supplier<String>> fields = new LinkedHashMap<>();
+		fields.put("id", this::mostlyString);
+		fields.put("version", () -> pick(VERSIONS));
+		fields.put("requires", this::v0Dependencies);
+		fields.put("conflicts", this::v0Dependencies);
+		fields.put("recommends", this::v0Dependencies);
+		fields.put("languageAdapter", this::mostlyString);
+		fields.put("mixins", () -> orInvalid(() -> object(60, new String[] { "client", "common", "server" }, () -> chance(50) ? mostlyString() : orInvalid(() -> array(3, this::mostlyString)))));
+		fields.put("side", () -> orInvalid(() -> "\"" + pick("client", "server", "universal", "Server") + "\""));
+		fields.put("lazilyLoaded", () -> pick("true", "false", "\"true\"", "\"yes\"", "null", "1"));
+		fields.put("initializer", this::mostlyString);
+		fields.put("initializers", () -> orInvalid(() -> array(3, this::mostlyString)));
+		fields.put("name", this::mostlyString);
+		fields.put("description", this::mostlyString);
+		fields.put("links", () -> chance(30) ? mostlyString() : orInvalid(() -> object(60, new String[] { "homepage", "issues", "sources", "wiki" }, this::mostlyString)));
+		fields.put("authors", () -> orInvalid(() -> array(3, this::v0Person)));
+		fields.put("contributors", () -> orInvalid(() -> array(3, this::v0Person)));
+		fields.put("license", this::mostlyString);
+		fields.put("unknown", () -> anyValue(0));
+		return object(60, fields);
+	}
+
+	private String malformedDocument() {
+		return pick("", "null", "[]", "\"text\"", "{", "{\"id\": }", "{\"id\": \"a\"} {}", "{\"id\": \"a\",}", "{id: modid, version: 1.0.0}",
+			"{\"schemaVersion\": 2, \"id\": \"a\"}", "{\"schemaVersion\": \"one\"}", "{\"schemaVersion\": 1, \"id\": \"a\"", "// comment\n{\"id\": \"a\"}");
+	}
+
+	private static LoaderModMetadata[] parse(String json, boolean tree) {
+		ByteArrayInputStream in = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+		return tree ? ModMetadataParser.getModsFromTree(null, in) : ModMetadataParser.getMods(null, in);
+	}
+
+	private static void assertSame(Object expected, Object actual, String path) throws IllegalAccessException {
+		if (expected == null || actual == null) {
+			if (expected != actual) {
+				throw new RuntimeException(path + ": expected " + expected + ", got " + actual);
+			}
+
+			return;
+		} else if (expected.getClass() != actual.getClass() && !(expected instanceof Map && actual instanceof Map)) {
+			// Gson picks its own map implementation for fields declared as Map
+			throw new RuntimeException(path + ": expected " + expected.getClass() + ", got " + actual.getClass());
+		}
+
+		if (expected instanceof String || expected instanceof Number || expected instanceof Boolean || expected instanceof Enum || expected instanceof JsonElement) {
+			if (!expected.equals(actual)) {
+				throw new RuntimeException(path + ": expected " + expected + ", got " + actual);
+			}
+		} else if (expected instanceof Version) {
+			assertSame(((Version) expected).getFriendlyString(), ((Version) actual).getFriendlyString(), path);
+		} else if (expected instanceof Map) {
+			Map<?, ?> expectedMap = (Map<?, ?>) expected;
+			Map<?, ?> actualMap = (Map<?, ?>) actual;
+			if (!expectedMap.keySet().equals(actualMap.keySet())) {
+				throw new RuntimeException(path + ": expected keys " + expectedMap.keySet() + ", got " + actualMap.keySet());
+			}
+
+			if (!(expected instanceof HashMap)) {
+				assertSame(new ArrayList<>(expectedMap.keySet()), new ArrayList<>(actualMap.keySet()), path + " key order");
+			}
+
+			for (Object key : expectedMap.keySet()) {
+				assertSame(expectedMap.get(key), actualMap.get(key), path + "[" + key + "]");
+			}
+		} else if (expected instanceof Collection) {
+			assertSame(((Collection<?>) expected).toArray(), ((Collection<?>) actual).toArray(), path);
+		} else if (expected.getClass().isArray()) {
+			assertSame(Array.getLength(expected), Array.getLength(actual), path + ".length");
+
+			for (int i = 0; i < Array.getLength(expected); i++) {
+				assertSame(Array.get(expected, i), Array.get(actual, i), path + "[" + i + "]");
+			}
+		} else {
+			for (Class<?> cls = expected.getClass(); cls != Object.class; cls = cls.getSuperclass()) {
+				for (Field field : cls.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						assertSame(field.get(expected), field.get(actual), path + "." + field.getName());
+					}
+				}
+			}
+		}
+	}
+
+	private void run() throws IllegalAccessException {
+		int parsed = 0;
+		int failed = 0;
+
+		for (int i = 0; i < DOCUMENTS; i++) {
+			String json;
+
+			if (i % 50 == 0) {
+				json = malformedDocument();
+			} else {
+				json = i % 2 == 0 ? v1Document() : v0Document();
+			}
+
+			LoaderModMetadata[] expected;
+			LoaderModMetadata[] actual;
+			Exception expectedFailure = null;
+			Exception actualFailure = null;
+
+			try {
+				expected = parse(json, true);
+			} catch (Exception e) {
+				expected = null;
+				expectedFailure = e;
+			}
+
+			try {
+				actual = parse(json, false);
+			} catch (Exception e) {
+				actual = null;
+				actualFailure = e;
+			}
+
+			if ((expectedFailure == null) != (actualFailure == null)) {
+				RuntimeException e = new RuntimeException("Parsers disagree on " + json + ": tree " + (expectedFailure == null ? "succeeded" : "failed") + ", stream " + (actualFailure == null ? "succeeded" : "failed"));
+				e.addSuppressed(expectedFailure != null ? expectedFailure : actualFailure);
+				throw e;
+			} else if (expectedFailure != null) {
+				failed++;
+				continue;
+			}
+
+			try {
+				assertSame(expected, actual, "mods");
+			} catch (RuntimeException e) {
+				throw new RuntimeException("Parsers disagree on " + json, e);
+			}
+
+			parsed++;
+		}
+
+		// make sure the generator covers both outcomes
+		if (parsed < DOCUMENTS / 10 || failed < DOCUMENTS / 10) {
+			throw new RuntimeException("Unbalanced test documents: " + parsed + " parsed, " + failed + " failed");
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new ModMetadataParserTests().run();
+		System.out.println("ModMetadataParserTests OK");
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import net.fabricmc.loader.ModContainer;
+import net.fabricmc.loader.api.metadata.ModMetadata;
+import net.fabricmc.loader.util.FileSystemUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Compares the indexed entry lookups of a JAR mod against the default implementations,
+ * which walk the JAR's file system.
+ */
+public class ModResourceIndexTests {
+	private static final String[] FILES = {
+		"fabric.mod.json", "assets/a/icon.png", "assets/a/lang/en_us.json", "assets/a/lang/de_de.json", "assets/a/lang2/x.json",
+		"assets/ab/lang/en_us.json", "data/a/recipes/one.json", "data/a/recipes/nested/two.json", "net/example/Main.class"
+	};
+	private static final String[] DIRECTORIES = { "assets/", "assets/a/", "assets/a/lang/", "data/a/recipes/empty/" };
+	private static final String[] PREFIXES = {
+		"", "assets", "assets/", "assets/a", "assets/a/", "assets/a/lang", "assets/a/lang/", "assets/a/lang/en", "/assets/a/",
+		"data/a/recipes/", "data/a/recipes/empty/", "missing/", "fabric.mod.json", "net/example/Main.class"
+	};
+	private static final String[] LOOKUPS = {
+		"fabric.mod.json", "/fabric.mod.json", "assets/a/lang/en_us.json", "assets/a/lang", "assets/a/lang/", "assets/a/missing.json", "net/example/Main.class"
+	};
+
+	private static void testTrue(boolean b, String message) {
+		if (!b) {
+			throw new RuntimeException("Test failed: " + message);
+		}
+	}
+
+	private static String read(net.fabricmc.loader.api.ModContainer mod, String file) throws IOException {
+		try (InputStream in = mod.openEntry(file)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[256];
+			int len;
+
+			while ((len = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, len);
+			}
+
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			// missing files and directories, the exception for directories depends on the file system
+			return null;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path jar = Files.createTempFile("mod", ".jar");
+
+		try {
+			try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+				for (String directory : DIRECTORIES) {
+					zip.putNextEntry(new ZipEntry(directory));
+					zip.closeEntry();
+				}
+
+				for (String file : FILES) {
+					zip.putNextEntry(new ZipEntry(file));
+					zip.write(("contents of " + file).getBytes(StandardCharsets.UTF_8));
+					zip.closeEntry();
+				}
+			}
+
+			ModContainer indexed = new ModContainer(null, jar.toUri().toURL());
+
+			try (FileSystemUtil.FileSystemDelegate delegate = FileSystemUtil.getJarFileSystem(jar, false)) {
+				Path root = delegate.get().getRootDirectories().iterator().next();
+
+				// only uses the default implementations
+				net.fabricmc.loader.api.ModContainer walked = new net.fabricmc.loader.api.ModContainer() {
+					@Override
+					public ModMetadata getMetadata() {
+						return null;
+					}
+
+					@Override
+					public Path getRootPath() {
+						return root;
+					}
+				};
+
+				for (String prefix : PREFIXES) {
+					List<String> expected = walked.getEntries(prefix);
+					List<String> actual = indexed.getEntries(prefix);
+					testTrue(expected.equals(actual), "entries under '" + prefix + "': expected " + expected + ", got " + actual);
+				}
+
+				testTrue(indexed.getEntries("").size() == FILES.length, "index contains directories");
+
+				for (String file : LOOKUPS) {
+					testTrue(walked.hasEntry(file) == indexed.hasEntry(file), "existence of '" + file + "'");
+
+					String expected = read(walked, file);
+					String actual = read(indexed, file);
+					testTrue(expected == null ? actual == null : expected.equals(actual), "contents of '" + file + "': expected " + expected + ", got " + actual);
+				}
+			}
+		} finally {
+			Files.delete(jar);
+		}
+
+		System.out.println("ModResourceIndexTests OK");
+	}
+}
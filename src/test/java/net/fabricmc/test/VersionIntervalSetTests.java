@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 FabricMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.fabricmc.test;
+
+import net.fabricmc.loader.util.version.SemanticVersionImpl;
+import net.fabricmc.loader.util.version.SemanticVersionPredicateParser;
+import net.fabricmc.loader.util.version.VersionIntervalSet;
+import net.fabricmc.loader.util.version.VersionParsingException;
+
+public class VersionIntervalSetTests {
+	private static void testTrue(boolean b, String message) {
+		if (!b) {
+			throw new RuntimeException("Test failed: " + message);
+		}
+	}
+
+	private static VersionIntervalSet range(String predicate) throws VersionParsingException {
+		return SemanticVersionPredicateParser.createIntervals(predicate);
+	}
+
+	private static void testContains(VersionIntervalSet set, String version, boolean expected) throws VersionParsingException {
+		testTrue(set.contains(new SemanticVersionImpl(version, false)) == expected, set + (expected ? " should contain " : " should not contain ") + version);
+	}
+
+	private static void testSame(VersionIntervalSet a, VersionIntervalSet b) {
+		testTrue(a.toString().equals(b.toString()), a + " != " + b);
+	}
+
+	public static void main(String[] args) throws Exception {
+		// Test: Plain comparisons.
+		testContains(range(">=1.0.0"), "1.0.0", true);
+		testContains(range(">1.0.0"), "1.0.0", false);
+		testContains(range(">1.0.0"), "1.0.1-alpha", true);
+		testContains(range("<1.0.0"), "1.0.0-rc.1", true);
+		testContains(range("<=1.0.0"), "1.0.0+build.5", true);
+		testContains(range("1.0.0"), "1.0.1", false);
+		testTrue(range("*") == VersionIntervalSet.ALL, "* should accept everything");
+
+		// Test: X-ranges include the prereleases of their own versions, but not of the next one.
+		VersionIntervalSet x = range("1.2.x");
+		testContains(x, "1.2.0-alpha", true);
+		testContains(x, "1.2.0", true);
+		testContains(x, "1.2.99", true);
+		testContains(x, "1.3.0-alpha", false);
+		testContains(x, "1.1.99", false);
+		testContains(range("1.x"), "1.0.0-", true);
+		testContains(range("1.x"), "2.0.0-0", false);
+
+		// Test: Tilde ranges allow patch updates, caret ranges minor updates.
+		VersionIntervalSet tilde = range("~1.2.3");
+		testContains(tilde, "1.2.3-beta", false);
+		testContains(tilde, "1.2.3", true);
+		testContains(tilde, "1.2.10-beta", true);
+		testContains(tilde, "1.3.0-alpha", false);
+		testContains(tilde, "1.3.0", false);
+
+		VersionIntervalSet caret = range("^1.2.3");
+		testContains(caret, "1.2.2", false);
+		testContains(caret, "1.9.9", true);
+		testContains(caret, "1.9.9-rc.1", true);
+		testContains(caret, "2.0.0-rc.1", false);
+		testContains(caret, "2.0.0", false);
+
+		VersionIntervalSet caretPrerelease = range("^1.2.3-beta.2");
+		testContains(caretPrerelease, "1.2.3-beta.1", false);
+		testContains(caretPrerelease, "1.2.3-beta.3", true);
+		testContains(caretPrerelease, "1.2.3", true);
+
+		// Test: Intersection.
+		testSame(range(">=1.0.0").intersect(range("<2.0.0")), range(">=1.0.0 <2.0.0"));
+		testSame(range("^1.2.3").intersect(range("1.x")), range("^1.2.3"));
+		testSame(range("~1.2.3").intersect(range("^1.2.0")), range("~1.2.3"));
+		testTrue(range("<1.0.0").intersect(range(">=1.0.0")).isEmpty(), "disjoint ranges should not intersect");
+		testTrue(!range("<1.0.0").intersects(range(">=1.0.0")), "disjoint ranges should not intersect");
+		testTrue(range("<=1.0.0").intersects(range(">=1.0.0")), "ranges sharing a bound should intersect");
+		testContains(range("<=1.0.0").intersect(range(">=1.0.0")), "1.0.0", true);
+		testContains(range("<=1.0.0").intersect(range(">=1.0.0")), "1.0.0-rc.1", false);
+		testTrue(range("1.2.x").intersect(range("1.3.x")).isEmpty(), "adjacent x-ranges should not intersect");
+		testTrue(range("^1.0.0").intersect(VersionIntervalSet.EMPTY).isEmpty(), "nothing intersects the empty set");
+		testSame(VersionIntervalSet.ALL.intersect(range("~1.2.3")), range("~1.2.3"));
+
+		VersionIntervalSet gaps = range("1.0.x").union(range("1.2.x")).union(range("1.4.x"));
+		testSame(gaps.intersect(range(">=1.0.5 <1.4.2")), range(">=1.0.5 <1.1-").union(range("1.2.x")).union(range(">=1.4- <1.4.2")));
+
+		// Test: Union.
+		VersionIntervalSet adjacent = range("1.x").union(range("2.x"));
+		testTrue(adjacent.getIntervals().size() == 1, "touching ranges should merge: " + adjacent);
+		testContains(adjacent, "2.0.0-alpha", true);
+		testContains(adjacent, "3.0.0-alpha", false);
+
+		testTrue(gaps.getIntervals().size() == 3, "disjoint ranges should stay apart: " + gaps);
+		testContains(gaps, "1.1.0", false);
+		testContains(gaps, "1.2.0-pre", true);
+		testContains(gaps, "1.3.9", false);
+		testContains(gaps, "1.4.1", true);
+
+		testSame(range("1.4.x").union(range("1.0.x")).union(range("1.2.x")), gaps);
+		testSame(range(">=1.0.0 <2.0.0").union(range(">=1.5.0 <3.0.0")), range(">=1.0.0 <3.0.0"));
+		testSame(range("<1.0.0").union(range(">=1.0.0")), VersionIntervalSet.ALL);
+		testTrue(range("<1.0.0").union(range(">1.0.0")).getIntervals().size() == 2, "a missing point should keep ranges apart");
+		testContains(range("<1.0.0").union(range(">1.0.0")), "1.0.0", false);
+		testSame(range("~1.2.3").union(VersionIntervalSet.EMPTY), range("~1.2.3"));
+		testTrue(range("~1.2.3").union(VersionIntervalSet.ALL) == VersionIntervalSet.ALL, "union with everything should be everything");
+	}
+}